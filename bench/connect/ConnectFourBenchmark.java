@@ -0,0 +1,210 @@
+package connect;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH micro-benchmarks for the hot paths of the Connect Four model, view and controller, on
+ * boards of several sizes. Every benchmark and board size runs in JVMs of its own, so that the
+ * profile the JIT compiler gathers for one does not slow down the next, and results go to JMH's
+ * blackhole so that the work being measured cannot be removed.
+ *
+ * <p>The position measured is the one just before the end of a random game on the board, and
+ * the games replayed are that whole random game; {@link #makeMove()},
+ * {@link #concurrentMakeMove()} and {@link #playGame()} report the time of the whole game. Run
+ * with {@code mvn test-compile exec:exec}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ConnectFourBenchmark {
+  private static final int MAX_MOVES = 2000;
+
+  @Param({"6x7", "20x20", "100x100"})
+  private String size;
+
+  private int[] moves;
+  private ConnectFourModel position;
+  private ConnectFourModel game;
+  private ConcurrentConnectFourModel sharedGame;
+  private StringBuilder out;
+  private String script;
+
+  /**
+   * Plays the random game and builds the position and the input script of the board size.
+   */
+  @Setup
+  public void setUp() {
+    int separator = size.indexOf('x');
+    int rows = Integer.parseInt(size.substring(0, separator));
+    int columns = Integer.parseInt(size.substring(separator + 1));
+    moves = randomGame(rows, columns, new Random(5004));
+    position = new ConnectFourModelImpl(rows, columns);
+    for (int i = 0; i < moves.length - 1; i++) {
+      position.makeMove(moves[i]);
+    }
+    game = new ConnectFourModelImpl(rows, columns);
+    sharedGame = new ConcurrentConnectFourModel(new ConnectFourModelImpl(rows, columns));
+    out = new StringBuilder();
+    script = script(moves);
+  }
+
+  /**
+   * Replays the whole random game on an empty board.
+   *
+   * @return the height of the first column played, which depends on all moves
+   */
+  @Benchmark
+  public int makeMove() {
+    game.resetBoard();
+    for (int move : moves) {
+      game.makeMove(move);
+    }
+    return game.getColumnHeight(moves[0]);
+  }
+
+  /**
+   * Replays the whole random game on an empty board shared with spectators, which publishes a
+   * snapshot after every move.
+   *
+   * @return the version of the last snapshot
+   */
+  @Benchmark
+  public long concurrentMakeMove() {
+    sharedGame.resetBoard();
+    for (int move : moves) {
+      sharedGame.makeMove(move);
+    }
+    return sharedGame.getVersion();
+  }
+
+  /**
+   * Asks whether the game is over and who won.
+   *
+   * @param blackhole consumes the answers
+   */
+  @Benchmark
+  public void isGameOverAndGetWinner(Blackhole blackhole) {
+    blackhole.consume(position.isGameOver());
+    blackhole.consume(position.getWinner());
+  }
+
+  /**
+   * Copies the board.
+   *
+   * @return the copy
+   */
+  @Benchmark
+  public Player[][] getBoardState() {
+    return position.getBoardState();
+  }
+
+  /**
+   * Builds the text of the board.
+   *
+   * @return the text
+   */
+  @Benchmark
+  public String boardToString() {
+    return position.toString();
+  }
+
+  /**
+   * Renders the board into a reused buffer.
+   *
+   * @return the buffer
+   * @throws IOException if an I/O error occurs
+   */
+  @Benchmark
+  public StringBuilder renderBoard() throws IOException {
+    out.setLength(0);
+    position.renderBoard(out);
+    return out;
+  }
+
+  /**
+   * Plays the whole random game through the console controller and the view, then quits.
+   *
+   * @return the number of characters displayed
+   */
+  @Benchmark
+  public int playGame() {
+    game.resetBoard();
+    out.setLength(0);
+    new ConnectFourConsoleController(new StringReader(script), new ConnectFourView(out))
+        .playGame(game);
+    return out.length();
+  }
+
+  /**
+   * Reads the moves of the input script as numbers.
+   *
+   * @param blackhole consumes the numbers
+   */
+  @Benchmark
+  public void tokenize(Blackhole blackhole) {
+    InputTokenizer tokenizer = new InputTokenizer(new StringReader(script));
+    for (int i = 0; i < moves.length; i++) {
+      blackhole.consume(tokenizer.nextInt());
+    }
+  }
+
+  /**
+   * Plays random legal moves until the game is over or {@link #MAX_MOVES} have been made.
+   *
+   * @param rows    the number of rows
+   * @param columns the number of columns
+   * @param random  the random number generator
+   * @return the columns played, starting at 1
+   */
+  private static int[] randomGame(int rows, int columns, Random random) {
+    ConnectFourModel m = new ConnectFourModelImpl(rows, columns);
+    List<Integer> moves = new ArrayList<>();
+    while (!m.isGameOver() && moves.size() < MAX_MOVES) {
+      int column = 1 + random.nextInt(columns);
+      if (m.getColumnHeight(column) < rows) {
+        m.makeMove(column);
+        moves.add(column);
+      }
+    }
+    int[] result = new int[moves.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = moves.get(i);
+    }
+    return result;
+  }
+
+  /**
+   * Builds the controller input that plays the given moves and then quits.
+   *
+   * @param moves the columns to play, starting at 1
+   * @return the input script
+   */
+  private static String script(int[] moves) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < moves.length - 1; i++) {
+      sb.append(moves[i]).append("\n");
+    }
+    sb.append("0\n");
+    return sb.toString();
+  }
+}
@@ -1,21 +1,138 @@
+import connect.BookMoveSearcher;
+import connect.ConnectFourAI;
+import connect.ConnectFourBitboardModel;
 import connect.ConnectFourConsoleController;
+import connect.ConnectFourDeltaView;
+import connect.ConnectFourModel;
 import connect.ConnectFourModelImpl;
+import connect.ConnectFourServer;
+import connect.ConnectFourSparseModel;
 import connect.ConnectFourView;
+import connect.InstrumentedModel;
+import connect.LoadGenerator;
+import connect.LogMetricsSink;
+import connect.ModelMetrics;
+import connect.ObservableModel;
+import connect.MoveSearcher;
+import connect.OpeningBook;
+import connect.OpeningBookGenerator;
+import connect.ParallelMoveSearcher;
+import connect.Player;
+import connect.VirtualThreads;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 /**
  * Run a Connect Four game interactively on the console.
  */
 public class Main {
+  private static final int DEFAULT_PORT = 5004;
+  private static final long DEFAULT_LOAD_SEED = 42;
+
   /**
-   * Run a Connect Four game interactively on the console.
+   * Run a Connect Four game interactively on the console. The arguments {@code bitboard} and
+   * {@code sparse} play on the bitboard-backed or the sparse model instead of the default one,
+   * the argument {@code ai} lets the computer play YELLOW and the argument {@code parallel} lets
+   * it search on every processor.
+   * With {@code book=<file>}, the computer plays its opening moves from the given opening book,
+   * and with {@code metrics} the model's latencies and the game events are logged to the error
+   * stream every ten seconds and when the game ends. With {@code delta}, only the moves are
+   * printed after the first board, as {@link ConnectFourDeltaView} does.
+   * With {@code server [port]} as arguments, games are hosted over TCP on the given port
+   * (5004 by default) instead, and with {@code book <file> [plies] [millis]} an opening book
+   * covering the given number of plies (8 by default) is built, searching each position for the
+   * given time (1000 milliseconds by default). With
+   * {@code load [sessions] [games] [platform|virtual] [seed]}, a load test plays the given number
+   * of console sessions (1000 by default) of the given number of games (10 by default) each, on a
+   * pool of one platform thread per processor or on virtual threads, with moves drawn from the
+   * given seed (42 by default), and prints the turn latencies, throughput and allocation rate.
    *
    * @param args command-line arguments
+   * @throws IOException if the server port cannot be opened or the book cannot be read or
+   *                     written
    */
-  public static void main(String[] args) {
+  public static void main(String[] args) throws IOException {
+    if (args.length > 0 && "server".equals(args[0])) {
+      int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+      ConnectFourServer server = new ConnectFourServer(port, 10_000, ConnectFourModelImpl::new);
+      Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+      server.start();
+      System.out.println("Serving Connect Four on port " + server.getPort());
+      return;
+    }
+    if (args.length > 1 && "book".equals(args[0])) {
+      int plies = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+      long millis = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+      OpeningBookGenerator generator = new OpeningBookGenerator(6, 7, plies,
+          new ConnectFourAI(millis, Integer.MAX_VALUE, 22));
+      int size = generator.generate(Paths.get(args[1]));
+      System.out.println("Wrote " + size + " positions to " + args[1]);
+      return;
+    }
+    if (args.length > 0 && "load".equals(args[0])) {
+      int sessions = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+      int games = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+      boolean virtual = args.length > 3 && "virtual".equals(args[3]);
+      long seed = args.length > 4 ? Long.parseLong(args[4]) : DEFAULT_LOAD_SEED;
+      int threads = Runtime.getRuntime().availableProcessors();
+      Supplier<ExecutorService> executors = virtual ? VirtualThreads::newPerTaskExecutor
+          : () -> Executors.newFixedThreadPool(threads);
+      LoadGenerator generator = new LoadGenerator(ConnectFourModelImpl::new, executors,
+          sessions, games, seed);
+      System.out.println(generator.run());
+      return;
+    }
     Readable input = new InputStreamReader(System.in);
     Appendable output = System.out;
-    ConnectFourView view = new ConnectFourView(output);
-    new ConnectFourConsoleController(input, view).playGame(new ConnectFourModelImpl(6, 7));
+    ConnectFourModel model = new ConnectFourModelImpl(6, 7);
+    MoveSearcher searcher = null;
+    Path book = null;
+    boolean metrics = false;
+    boolean delta = false;
+    for (String arg : args) {
+      if ("bitboard".equals(arg)) {
+        model = new ConnectFourBitboardModel(6, 7);
+      } else if ("sparse".equals(arg)) {
+        model = new ConnectFourSparseModel(6, 7);
+      } else if ("ai".equals(arg)) {
+        searcher = new ConnectFourAI();
+      } else if ("parallel".equals(arg)) {
+        searcher = new ParallelMoveSearcher();
+      } else if (arg.startsWith("book=")) {
+        book = Paths.get(arg.substring("book=".length()));
+      } else if ("metrics".equals(arg)) {
+        metrics = true;
+      } else if ("delta".equals(arg)) {
+        delta = true;
+      }
+    }
+    if (searcher != null && book != null) {
+      searcher = new BookMoveSearcher(new OpeningBook(book), searcher);
+    }
+    ConnectFourView view = new ConnectFourView(output, true);
+    if (delta) {
+      ConnectFourDeltaView deltaView = new ConnectFourDeltaView(output, true, 32);
+      ObservableModel observable = new ObservableModel(model);
+      observable.addListener(deltaView);
+      model = observable;
+      view = deltaView;
+    }
+    ConnectFourConsoleController controller = searcher == null
+        ? new ConnectFourConsoleController(input, view)
+        : new ConnectFourConsoleController(input, view, Player.YELLOW, searcher);
+    if (!metrics) {
+      controller.playGame(model);
+      return;
+    }
+    try (ModelMetrics modelMetrics = new ModelMetrics(new LogMetricsSink(System.err))) {
+      controller.setListener(modelMetrics);
+      modelMetrics.startReporting(10_000);
+      controller.playGame(new InstrumentedModel(model, modelMetrics));
+    }
   }
 }
@@ -0,0 +1,86 @@
+package connect;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * Keeps the text of a game board ready to be written out. The text has the same layout as the
+ * models' {@code toString()}: one line per row from the top row down, each starting with the row
+ * number and listing every cell as {@code n} (empty), {@code R} or {@code Y}. The empty board is
+ * built once as a template; after that only the character of a cell that changes is updated, and
+ * the whole board is written out from the buffer without building a {@code String}.
+ */
+class BoardRenderer {
+  private final char[] template;
+  private final char[] buffer;
+  private final int[] rowStart;
+  private final CharBuffer view;
+
+  /**
+   * Constructs a new BoardRenderer object for an empty board.
+   *
+   * @param rows    the number of rows of the board
+   * @param columns the number of columns of the board
+   */
+  BoardRenderer(int rows, int columns) {
+    StringBuilder sb = new StringBuilder();
+    rowStart = new int[rows];
+    for (int i = rows - 1; i >= 0; i--) {
+      sb.append(i).append(": ");
+      rowStart[i] = sb.length();
+      for (int j = 0; j < columns; j++) {
+        sb.append("n ");
+      }
+      sb.append("\n");
+    }
+    template = new char[sb.length()];
+    sb.getChars(0, sb.length(), template, 0);
+    buffer = template.clone();
+    view = CharBuffer.wrap(buffer);
+  }
+
+  /**
+   * Updates a single cell.
+   *
+   * @param row    the row of the cell, starting at 0 for the bottom row
+   * @param column the column of the cell, starting at 0 for the leftmost column
+   * @param player the owner of the disc in the cell, or null if the cell is empty
+   */
+  void set(int row, int column, Player player) {
+    buffer[rowStart[row] + 2 * column] = player == null ? 'n' : player.getDisplayName().charAt(0);
+  }
+
+  /**
+   * Empties every cell.
+   */
+  void clear() {
+    System.arraycopy(template, 0, buffer, 0, template.length);
+  }
+
+  /**
+   * Writes the board into the given destination. Writers, print streams and string builders get
+   * the characters directly; any other destination gets a reusable view of the buffer.
+   *
+   * @param out the destination
+   * @throws IOException if an I/O error occurs
+   */
+  void renderTo(Appendable out) throws IOException {
+    if (out instanceof StringBuilder) {
+      ((StringBuilder) out).append(buffer);
+    } else if (out instanceof Writer) {
+      ((Writer) out).write(buffer);
+    } else if (out instanceof PrintStream) {
+      ((PrintStream) out).print(buffer);
+    } else {
+      view.clear();
+      out.append(view);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return new String(buffer);
+  }
+}
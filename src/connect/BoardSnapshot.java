@@ -0,0 +1,294 @@
+package connect;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * An immutable picture of a game at one version, as published by
+ * {@link ConcurrentConnectFourModel}. Every change to the game produces a new snapshot with the
+ * next version; a snapshot once handed out never changes, so any number of threads can read it
+ * without locking.
+ *
+ * <p>Besides the board, a snapshot knows the moves that led to it. Snapshots that follow each
+ * other by plain moves share one append-only array of moves, so a spectator that has seen
+ * version N can ask for just the moves made since then. The board is kept column by column, and
+ * a snapshot taken after a move shares every column but the one played with the snapshot before
+ * it, so a move costs time in proportion to the number of rows and columns rather than to the
+ * area of the board.
+ */
+public final class BoardSnapshot {
+  private static final Player[] PLAYERS = {null, Player.RED, Player.YELLOW};
+
+  private final long version;
+  private final long baseVersion;
+  private final int rows;
+  private final int columns;
+  private final int winLength;
+  private final byte[][] cells;
+  private final int[] heights;
+  private final int[] moves;
+  private final int moveCount;
+  private final Player turn;
+  private final Player winner;
+  private final boolean gameOver;
+  private volatile String text;
+
+  /**
+   * Constructs a new BoardSnapshot object. The arrays are owned by the snapshot from now on,
+   * except for the columns of discs, which may be shared with other snapshots but are never
+   * changed, and the moves, of which only the first {@code moveCount} are ever read.
+   *
+   * @param version     the version of the game
+   * @param baseVersion the latest version at which moves were taken back or the board reset
+   * @param rows        the number of rows
+   * @param columns     the number of columns
+   * @param winLength   the number of discs in a line needed to win
+   * @param cells       the discs of each column from the bottom, 0 for empty and
+   *                    {@code ordinal() + 1} else
+   * @param heights     the number of discs in each column
+   * @param moves       the columns played so far, starting at 1
+   * @param moveCount   the number of moves played so far
+   * @param turn        the player to move, or null if the game is over
+   * @param winner      the winner, or null if there is none
+   * @param gameOver    whether the game is over
+   */
+  private BoardSnapshot(long version, long baseVersion, int rows, int columns, int winLength,
+      byte[][] cells, int[] heights, int[] moves, int moveCount, Player turn, Player winner,
+      boolean gameOver) {
+    this.version = version;
+    this.baseVersion = baseVersion;
+    this.rows = rows;
+    this.columns = columns;
+    this.winLength = winLength;
+    this.cells = cells;
+    this.heights = heights;
+    this.moves = moves;
+    this.moveCount = moveCount;
+    this.turn = turn;
+    this.winner = winner;
+    this.gameOver = gameOver;
+  }
+
+  /**
+   * Takes a full snapshot of the given model, starting a new run of moves at this version.
+   *
+   * @param m       the model
+   * @param version the version of the snapshot
+   * @return the snapshot
+   */
+  static BoardSnapshot of(ConnectFourModel m, long version) {
+    int rows = m.getRows();
+    int columns = m.getColumns();
+    byte[][] cells = new byte[columns][rows];
+    int[] heights = new int[columns];
+    for (int j = 0; j < columns; j++) {
+      heights[j] = m.getColumnHeight(j + 1);
+      for (int i = 0; i < heights[j]; i++) {
+        cells[j][i] = (byte) (m.cellAt(i, j).ordinal() + 1);
+      }
+    }
+    int[] history = m.getMoveHistory();
+    return new BoardSnapshot(version, version, rows, columns, m.getWinLength(), cells, heights,
+        history, history.length, m.getTurn(), m.getWinner(), m.isGameOver());
+  }
+
+  /**
+   * Takes the snapshot that follows this one after the player to move drops a disc in the given
+   * column. Only the column played is copied; the other columns are shared with this snapshot.
+   * The moves array is shared with this snapshot unless it is full; entries past this
+   * snapshot's moves are never read by it, so writing the new move there is safe.
+   *
+   * @param column the column played, starting at 1
+   * @param m      the model after the move, for its turn and winner
+   * @return the next snapshot
+   */
+  BoardSnapshot next(int column, ConnectFourModel m) {
+    byte[][] nextCells = cells.clone();
+    nextCells[column - 1] = cells[column - 1].clone();
+    int[] nextHeights = heights.clone();
+    nextCells[column - 1][nextHeights[column - 1]++] = (byte) (turn.ordinal() + 1);
+    int[] nextMoves = moves;
+    if (moveCount == nextMoves.length) {
+      nextMoves = Arrays.copyOf(nextMoves, Math.max(16, moveCount * 2));
+    }
+    nextMoves[moveCount] = column;
+    return new BoardSnapshot(version + 1, baseVersion, rows, columns, winLength, nextCells,
+        nextHeights, nextMoves, moveCount + 1, m.getTurn(), m.getWinner(), m.isGameOver());
+  }
+
+  /**
+   * Retrieves the version of the game this snapshot shows. Versions start at 0 and go up by one
+   * with every change.
+   *
+   * @return the version
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Retrieves the moves made after the given version up to this snapshot.
+   *
+   * @param since a version no later than this snapshot's
+   * @return the columns played since then, starting at 1, or null if moves were taken back or
+   *         the board was reset since then, in which case the whole snapshot must be read again
+   * @throws IllegalArgumentException if the version is later than this snapshot's
+   */
+  public int[] getMovesSince(long since) throws IllegalArgumentException {
+    if (since > version) {
+      throw new IllegalArgumentException("Version is ahead of the snapshot");
+    }
+    if (since < baseVersion) {
+      return null;
+    }
+    return Arrays.copyOfRange(moves, moveCount - (int) (version - since), moveCount);
+  }
+
+  /**
+   * Retrieves the number of moves made so far.
+   *
+   * @return the number of moves
+   */
+  public int getMoveCount() {
+    return moveCount;
+  }
+
+  /**
+   * Retrieves all moves made so far.
+   *
+   * @return the columns played, starting at 1
+   */
+  public int[] getMoveHistory() {
+    return Arrays.copyOf(moves, moveCount);
+  }
+
+  /**
+   * Retrieves the player to move.
+   *
+   * @return the player to move, or null if the game is over
+   */
+  public Player getTurn() {
+    return turn;
+  }
+
+  /**
+   * Checks whether the game is over.
+   *
+   * @return true if the game is over
+   */
+  public boolean isGameOver() {
+    return gameOver;
+  }
+
+  /**
+   * Retrieves the winner of the game.
+   *
+   * @return the winner, or null if there is none
+   */
+  public Player getWinner() {
+    return winner;
+  }
+
+  /**
+   * Retrieves the number of rows.
+   *
+   * @return the number of rows
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Retrieves the number of columns.
+   *
+   * @return the number of columns
+   */
+  public int getColumns() {
+    return columns;
+  }
+
+  /**
+   * Retrieves the number of discs in a line needed to win.
+   *
+   * @return the win length
+   */
+  public int getWinLength() {
+    return winLength;
+  }
+
+  /**
+   * Retrieves the number of discs in the given column.
+   *
+   * @param column the column, starting at 1
+   * @return the number of discs in the column
+   * @throws IllegalArgumentException if the column is out of bounds
+   */
+  public int getColumnHeight(int column) throws IllegalArgumentException {
+    if (column < 1 || column > columns) {
+      throw new IllegalArgumentException("Column out of bounds");
+    }
+    return heights[column - 1];
+  }
+
+  /**
+   * Retrieves the disc in the given cell.
+   *
+   * @param row    the row, starting at 0 from the bottom
+   * @param column the column, starting at 0
+   * @return the player whose disc is in the cell, or null if it is empty
+   * @throws IllegalArgumentException if the cell is out of bounds
+   */
+  public Player cellAt(int row, int column) throws IllegalArgumentException {
+    if (row < 0 || row >= rows || column < 0 || column >= columns) {
+      throw new IllegalArgumentException("Cell out of bounds");
+    }
+    return PLAYERS[cells[column][row]];
+  }
+
+  /**
+   * Retrieves a copy of the board.
+   *
+   * @return the board, indexed by row and column
+   */
+  public Player[][] getBoardState() {
+    Player[][] board = new Player[rows][columns];
+    for (int j = 0; j < columns; j++) {
+      for (int i = 0; i < heights[j]; i++) {
+        board[i][j] = PLAYERS[cells[j][i]];
+      }
+    }
+    return board;
+  }
+
+  /**
+   * Writes the board to the given output, in the same layout as the models' {@code toString()}.
+   *
+   * @param out the output
+   * @throws IOException if an I/O error occurs
+   */
+  public void renderBoard(Appendable out) throws IOException {
+    out.append(toString());
+  }
+
+  /**
+   * Retrieves the text of the board, built the first time it is asked for. Concurrent readers
+   * may build it more than once, but always to the same string.
+   *
+   * @return the board in the same layout as the models' {@code toString()}
+   */
+  @Override
+  public String toString() {
+    String result = text;
+    if (result == null) {
+      BoardRenderer renderer = new BoardRenderer(rows, columns);
+      for (int j = 0; j < columns; j++) {
+        for (int i = 0; i < heights[j]; i++) {
+          renderer.set(i, j, PLAYERS[cells[j][i]]);
+        }
+      }
+      result = renderer.toString();
+      text = result;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,39 @@
+package connect;
+
+/**
+ * A computer player that plays from an {@link OpeningBook} while the game is in the book, and
+ * asks another searcher once it is not. Book moves are found with a binary search, so the
+ * opening moves are played without searching the game tree at all.
+ */
+public class BookMoveSearcher implements MoveSearcher {
+  private final OpeningBook book;
+  private final MoveSearcher fallback;
+
+  /**
+   * Constructs a new BookMoveSearcher object.
+   *
+   * @param book     the opening book
+   * @param fallback the searcher for positions that are not in the book
+   * @throws IllegalArgumentException if the book or the searcher is null
+   */
+  public BookMoveSearcher(OpeningBook book, MoveSearcher fallback)
+      throws IllegalArgumentException {
+    if (book == null || fallback == null) {
+      throw new IllegalArgumentException("Book and searcher cannot be null");
+    }
+    this.book = book;
+    this.fallback = fallback;
+  }
+
+  @Override
+  public int findMove(ConnectFourModel m) throws IllegalArgumentException, IllegalStateException {
+    if (m == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    if (m.isGameOver()) {
+      throw new IllegalStateException("Game is over");
+    }
+    int move = book.lookup(m);
+    return move != 0 ? move : fallback.findMove(m);
+  }
+}
@@ -0,0 +1,157 @@
+package connect;
+
+import java.io.IOException;
+
+/**
+ * A Connect Four model that can be shared between the players and any number of spectator
+ * threads. Every change goes to the wrapped model under a lock and then publishes a new
+ * immutable {@link BoardSnapshot} through a single volatile reference. Every query reads the
+ * latest snapshot and never takes the lock, so readers never block the players and never see a
+ * move half made.
+ *
+ * <p>A spectator keeps the version of the last snapshot it has shown and calls
+ * {@link #getMovesSince(long)} to fetch only the moves made since then, instead of copying the
+ * whole board each time.
+ */
+public class ConcurrentConnectFourModel implements ConnectFourModel {
+  private final ConnectFourModel delegate;
+  private volatile BoardSnapshot snapshot;
+
+  /**
+   * Constructs a new ConcurrentConnectFourModel object around the given model. The model must
+   * not be changed other than through this object from now on.
+   *
+   * @param delegate the model to share
+   * @throws IllegalArgumentException if the model is null
+   */
+  public ConcurrentConnectFourModel(ConnectFourModel delegate) throws IllegalArgumentException {
+    if (delegate == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    this.delegate = delegate;
+    this.snapshot = BoardSnapshot.of(delegate, 0);
+  }
+
+  /**
+   * Retrieves the latest snapshot of the game. It stays valid however the game goes on.
+   *
+   * @return the snapshot
+   */
+  public BoardSnapshot getSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Retrieves the latest version of the game.
+   *
+   * @return the version of the latest snapshot
+   */
+  public long getVersion() {
+    return snapshot.getVersion();
+  }
+
+  /**
+   * Retrieves the moves made after the given version.
+   *
+   * @param version a version already seen
+   * @return the columns played since then, starting at 1, or null if moves were taken back or
+   *         the board was reset since then, in which case {@link #getSnapshot()} must be read
+   * @throws IllegalArgumentException if the version has not been published yet
+   */
+  public int[] getMovesSince(long version) throws IllegalArgumentException {
+    return snapshot.getMovesSince(version);
+  }
+
+  @Override
+  public synchronized void initializeBoard() {
+    delegate.initializeBoard();
+    snapshot = BoardSnapshot.of(delegate, snapshot.getVersion() + 1);
+  }
+
+  @Override
+  public synchronized void makeMove(int column) throws IllegalArgumentException,
+      IllegalStateException {
+    delegate.makeMove(column);
+    snapshot = snapshot.next(column, delegate);
+  }
+
+  @Override
+  public synchronized void undoMove() throws IllegalStateException {
+    delegate.undoMove();
+    snapshot = BoardSnapshot.of(delegate, snapshot.getVersion() + 1);
+  }
+
+  @Override
+  public synchronized void redoMove() throws IllegalStateException {
+    BoardSnapshot current = snapshot;
+    delegate.redoMove();
+    int[] history = delegate.getMoveHistory();
+    snapshot = current.next(history[history.length - 1], delegate);
+  }
+
+  @Override
+  public synchronized void resetBoard() {
+    delegate.resetBoard();
+    snapshot = BoardSnapshot.of(delegate, snapshot.getVersion() + 1);
+  }
+
+  @Override
+  public int[] getMoveHistory() {
+    return snapshot.getMoveHistory();
+  }
+
+  @Override
+  public Player getTurn() {
+    return snapshot.getTurn();
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return snapshot.isGameOver();
+  }
+
+  @Override
+  public Player getWinner() {
+    return snapshot.getWinner();
+  }
+
+  @Override
+  public int getColumnHeight(int column) throws IllegalArgumentException {
+    return snapshot.getColumnHeight(column);
+  }
+
+  @Override
+  public int getRows() {
+    return snapshot.getRows();
+  }
+
+  @Override
+  public int getColumns() {
+    return snapshot.getColumns();
+  }
+
+  @Override
+  public int getWinLength() {
+    return snapshot.getWinLength();
+  }
+
+  @Override
+  public Player cellAt(int row, int column) throws IllegalArgumentException {
+    return snapshot.cellAt(row, column);
+  }
+
+  @Override
+  public Player[][] getBoardState() {
+    return snapshot.getBoardState();
+  }
+
+  @Override
+  public void renderBoard(Appendable out) throws IOException {
+    snapshot.renderBoard(out);
+  }
+
+  @Override
+  public String toString() {
+    return snapshot.toString();
+  }
+}
@@ -0,0 +1,60 @@
+package connect;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A computer player for Connect Four. It searches the game tree with negamax and alpha-beta
+ * pruning, trying the best move remembered in a transposition table first and then the columns
+ * from the centre outwards. The search deepens one ply at a time until the time budget for the
+ * move runs out, and plays the best move of the last depth it completed.
+ */
+public class ConnectFourAI implements MoveSearcher {
+  private final long timeBudgetNanos;
+  private final int maxDepth;
+  private final TranspositionTable table;
+  private final SearchWorker worker;
+
+  /**
+   * Constructs a new ConnectFourAI object that thinks for one second per move.
+   */
+  public ConnectFourAI() {
+    this(1000, TranspositionTable.MAX_DEPTH, 20);
+  }
+
+  /**
+   * Constructs a new ConnectFourAI object with the specified limits.
+   *
+   * @param timeBudgetMillis the time to search for each move, in milliseconds
+   * @param maxDepth         the deepest the search may go, in plies
+   * @param tableSizeBits    the base-2 logarithm of the number of transposition table slots
+   * @throws IllegalArgumentException if the budget or the depth is not positive, or the table
+   *                                  size is out of range
+   */
+  public ConnectFourAI(long timeBudgetMillis, int maxDepth, int tableSizeBits)
+      throws IllegalArgumentException {
+    if (timeBudgetMillis <= 0) {
+      throw new IllegalArgumentException("Time budget must be positive");
+    }
+    if (maxDepth <= 0) {
+      throw new IllegalArgumentException("Depth must be positive");
+    }
+    this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+    this.maxDepth = Math.min(maxDepth, TranspositionTable.MAX_DEPTH);
+    this.table = new TranspositionTable(tableSizeBits);
+    this.worker = new SearchWorker(table, new AtomicBoolean(false));
+  }
+
+  @Override
+  public int findMove(ConnectFourModel m) throws IllegalArgumentException, IllegalStateException {
+    if (m == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    if (m.isGameOver()) {
+      throw new IllegalStateException("Game is over");
+    }
+    table.newSearch();
+    worker.start(m, System.nanoTime() + timeBudgetNanos);
+    worker.iterate(1, maxDepth);
+    return worker.getBestMove() + 1;
+  }
+}
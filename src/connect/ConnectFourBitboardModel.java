@@ -0,0 +1,467 @@
+package connect;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A model for Connect Four that stores the discs of each player as bitboards. The cells are laid
+ * out column by column, with one extra (always empty) sentinel bit on top of every column, so
+ * that a shift by one bit moves along a column, a shift by {@code rows + 1} bits moves along a
+ * row and shifts by {@code rows} and {@code rows + 2} bits move along the two diagonals.
+ * Boards that fit in 64 bits use a single {@code long} per player and detect four in a line with
+ * shift-and-mask tests; larger boards and other win lengths use several words if needed and
+ * count the runs through the last disc. It behaves the same way as {@link ConnectFourModelImpl}.
+ */
+public class ConnectFourBitboardModel implements ConnectFourModel {
+  private static final int WORD_BITS = 64;
+
+  private final long[][] discs;
+  private final int[] heights;
+  private final int rows;
+  private final int columns;
+  private final int height;
+  private final int winLength;
+  private int moveCounter;
+  private Player winner;
+  private long key;
+  private BoardRenderer renderer;
+  private final int[] history;
+  private int historySize;
+  private int historyEnd;
+
+  /**
+   * Constructs a new ConnectFourBitboardModel object with the default number of rows and columns.
+   */
+  public ConnectFourBitboardModel() {
+    this(6, 7);
+  }
+
+  /**
+   * Constructs a new ConnectFourBitboardModel object with the specified number of rows and
+   * columns.
+   *
+   * @param rows    the number of rows in the game board
+   * @param columns the number of columns in the game board
+   * @throws IllegalArgumentException if the board is smaller than 4x4
+   */
+  public ConnectFourBitboardModel(int rows, int columns) throws IllegalArgumentException {
+    this(rows, columns, 4);
+  }
+
+  /**
+   * Constructs a new ConnectFourBitboardModel object with the specified number of rows and
+   * columns, won by the specified number of discs in a line.
+   *
+   * @param rows      the number of rows in the game board
+   * @param columns   the number of columns in the game board
+   * @param winLength the number of discs in a line needed to win
+   * @throws IllegalArgumentException if the board is smaller than 4x4, or the win length is less
+   *                                  than 2 or longer than the board
+   */
+  public ConnectFourBitboardModel(int rows, int columns, int winLength)
+      throws IllegalArgumentException {
+    if (rows < 4 || columns < 4) {
+      throw new IllegalArgumentException("Board size must be at least 4x4");
+    }
+    if (winLength < 2 || winLength > Math.max(rows, columns)) {
+      throw new IllegalArgumentException("Win length must be between 2 and the board size");
+    }
+    this.winLength = winLength;
+    this.rows = rows;
+    this.columns = columns;
+    this.height = rows + 1;
+    int words = (int) (((long) columns * height + WORD_BITS - 1) / WORD_BITS);
+    this.discs = new long[2][words];
+    this.heights = new int[columns];
+    this.moveCounter = 0;
+    this.winner = null;
+    this.history = new int[rows * columns];
+  }
+
+  @Override
+  public void initializeBoard() {
+    for (long[] playerDiscs : discs) {
+      for (int i = 0; i < playerDiscs.length; i++) {
+        playerDiscs[i] = 0L;
+      }
+    }
+    for (int i = 0; i < columns; i++) {
+      heights[i] = 0;
+    }
+    winner = null;
+    key = 0L;
+    historySize = 0;
+    historyEnd = 0;
+    if (renderer != null) {
+      renderer.clear();
+    }
+  }
+
+  @Override
+  public void makeMove(int column) throws IllegalArgumentException, IllegalStateException {
+    if (column < 1 || column > columns) {
+      throw new IllegalArgumentException("Column out of bounds");
+    }
+    if (heights[column - 1] == rows) {
+      throw new IllegalArgumentException("Column is full");
+    }
+    if (isGameOver()) {
+      throw new IllegalStateException("Game is over");
+    }
+    play(column - 1);
+    historyEnd = historySize;
+  }
+
+  @Override
+  public void undoMove() throws IllegalStateException {
+    if (historySize == 0) {
+      throw new IllegalStateException("No move to undo");
+    }
+    unplay(history[historySize - 1]);
+  }
+
+  @Override
+  public void redoMove() throws IllegalStateException {
+    if (historySize == historyEnd) {
+      throw new IllegalStateException("No move to redo");
+    }
+    play(history[historySize]);
+  }
+
+  @Override
+  public int[] getMoveHistory() {
+    int[] moves = Arrays.copyOf(history, historySize);
+    for (int i = 0; i < moves.length; i++) {
+      moves[i]++;
+    }
+    return moves;
+  }
+
+  @Override
+  public Player getTurn() {
+    if (isGameOver()) {
+      return null;
+    }
+    return moveCounter % 2 == 0 ? Player.RED : Player.YELLOW;
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return winner != null || moveCounter >= rows * columns;
+  }
+
+  @Override
+  public Player getWinner() {
+    return winner;
+  }
+
+  @Override
+  public void resetBoard() {
+    initializeBoard();
+    moveCounter = 0;
+  }
+
+  @Override
+  public int getColumnHeight(int column) throws IllegalArgumentException {
+    if (column < 1 || column > columns) {
+      throw new IllegalArgumentException("Column out of bounds");
+    }
+    return heights[column - 1];
+  }
+
+  @Override
+  public int getRows() {
+    return rows;
+  }
+
+  @Override
+  public int getColumns() {
+    return columns;
+  }
+
+  @Override
+  public int getWinLength() {
+    return winLength;
+  }
+
+  @Override
+  public Player cellAt(int row, int column) throws IllegalArgumentException {
+    if (row < 0 || row >= rows || column < 0 || column >= columns) {
+      throw new IllegalArgumentException("Cell out of bounds");
+    }
+    return cell(row, column);
+  }
+
+  @Override
+  public Player[][] getBoardState() {
+    Player[][] state = new Player[rows][columns];
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < columns; j++) {
+        state[i][j] = cell(i, j);
+      }
+    }
+    return state;
+  }
+
+  @Override
+  public void renderBoard(Appendable out) throws IOException {
+    renderer().renderTo(out);
+  }
+
+  @Override
+  public String toString() {
+    return renderer().toString();
+  }
+
+  /**
+   * Retrieves the renderer of the board, creating it from the current discs the first time the
+   * board is displayed. From then on every move updates the renderer.
+   *
+   * @return the renderer
+   */
+  private BoardRenderer renderer() {
+    if (renderer == null) {
+      renderer = new BoardRenderer(rows, columns);
+      for (int i = 0; i < rows; i++) {
+        for (int j = 0; j < columns; j++) {
+          renderer.set(i, j, cell(i, j));
+        }
+      }
+    }
+    return renderer;
+  }
+
+  /**
+   * Creates a bitboard copy of the current position of any model.
+   *
+   * @param m the model to copy
+   * @return a new bitboard model with the same discs and the same player to move, and the same
+   *         move history if the model has one for every disc
+   */
+  static ConnectFourBitboardModel copyOf(ConnectFourModel m) {
+    ConnectFourBitboardModel copy = new ConnectFourBitboardModel(m.getRows(), m.getColumns(),
+        m.getWinLength());
+    for (int j = 0; j < copy.columns; j++) {
+      int discsInColumn = m.getColumnHeight(j + 1);
+      for (int row = 0; row < discsInColumn; row++) {
+        copy.place(j, m.cellAt(row, j));
+      }
+    }
+    int[] moves = m.getMoveHistory();
+    if (moves.length == copy.moveCounter) {
+      for (int i = 0; i < moves.length; i++) {
+        copy.history[i] = moves[i] - 1;
+      }
+      copy.historySize = moves.length;
+      copy.historyEnd = moves.length;
+    }
+    copy.winner = m.getWinner();
+    return copy;
+  }
+
+  /**
+   * Checks whether a disc can be dropped in the given column, without any other validation.
+   *
+   * @param column the column, starting at 0
+   * @return true if the column is not full
+   */
+  boolean canPlay(int column) {
+    return heights[column] < rows;
+  }
+
+  /**
+   * Drops a disc for the player to move in the given column without validating the move, and
+   * pushes it on the move history. This is the fast path used by move search; the column must not
+   * be full and the game must not be over.
+   *
+   * @param column the column, starting at 0
+   */
+  void play(int column) {
+    Player player = moveCounter % 2 == 0 ? Player.RED : Player.YELLOW;
+    int bit = place(column, player);
+    history[historySize++] = column;
+    if (isWinningMove(discs[player.ordinal()], bit)) {
+      winner = player;
+    }
+  }
+
+  /**
+   * Takes back the last disc dropped in the given column and pops it from the move history. This
+   * is the reverse of {@link #play(int)}; the column must hold the disc of the last move.
+   *
+   * @param column the column, starting at 0
+   */
+  void unplay(int column) {
+    historySize--;
+    moveCounter--;
+    heights[column]--;
+    Player player = moveCounter % 2 == 0 ? Player.RED : Player.YELLOW;
+    int bit = column * height + heights[column];
+    clearBit(discs[player.ordinal()], bit);
+    key ^= zobrist(bit, player);
+    winner = null;
+    if (renderer != null) {
+      renderer.set(heights[column], column, null);
+    }
+  }
+
+  /**
+   * Retrieves the Zobrist hash of the current position.
+   *
+   * @return a hash of the discs on the board
+   */
+  long getKey() {
+    return key;
+  }
+
+  /**
+   * Retrieves the number of discs on the board.
+   *
+   * @return the number of moves made so far
+   */
+  int getMoveCount() {
+    return moveCounter;
+  }
+
+  /**
+   * Computes the Zobrist value of a disc on a bit. The values are derived from the bit index with
+   * a SplitMix64 mixing function, so no table is needed even for very large boards.
+   *
+   * @param bit    the index of the bit
+   * @param player the owner of the disc
+   * @return the value to xor into the position hash
+   */
+  static long zobrist(int bit, Player player) {
+    long z = (bit * 2L + player.ordinal() + 1) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Places a disc of the given player on top of a column and updates the move counter and hash.
+   *
+   * @param column the column, starting at 0
+   * @param player the owner of the disc
+   * @return the index of the bit that was set
+   */
+  private int place(int column, Player player) {
+    int bit = column * height + heights[column];
+    setBit(discs[player.ordinal()], bit);
+    key ^= zobrist(bit, player);
+    if (renderer != null) {
+      renderer.set(heights[column], column, player);
+    }
+    heights[column]++;
+    moveCounter++;
+    return bit;
+  }
+
+  /**
+   * Retrieves the disc at the given cell.
+   *
+   * @param row    the row of the cell, starting at 0 for the bottom row
+   * @param column the column of the cell, starting at 0 for the leftmost column
+   * @return the player owning the disc, or null if the cell is empty
+   */
+  private Player cell(int row, int column) {
+    int bit = column * height + row;
+    if (testBit(discs[Player.RED.ordinal()], bit)) {
+      return Player.RED;
+    }
+    if (testBit(discs[Player.YELLOW.ordinal()], bit)) {
+      return Player.YELLOW;
+    }
+    return null;
+  }
+
+  /**
+   * Checks whether the disc that was just placed on the given bit completes a winning line.
+   *
+   * @param board the bitboard of the player who placed the disc
+   * @param bit   the bit of the disc that was just placed
+   * @return true if the player now has as many consecutive discs through that bit as the win
+   *         length
+   */
+  private boolean isWinningMove(long[] board, int bit) {
+    if (board.length == 1 && winLength == 4) {
+      long b = board[0];
+      return hasFour(b, 1) || hasFour(b, height) || hasFour(b, height - 1)
+          || hasFour(b, height + 1);
+    }
+    int row = bit % height;
+    int column = bit / height;
+    return countLine(board, row, column, 1, 0) >= winLength
+        || countLine(board, row, column, 0, 1) >= winLength
+        || countLine(board, row, column, 1, 1) >= winLength
+        || countLine(board, row, column, -1, 1) >= winLength;
+  }
+
+  /**
+   * Checks a single-word bitboard for four consecutive bits spaced by the given shift.
+   *
+   * @param b     the bitboard
+   * @param shift the distance in bits between two neighbouring cells of a line
+   * @return true if there are four consecutive discs along that direction
+   */
+  private static boolean hasFour(long b, int shift) {
+    long pairs = b & (b >>> shift);
+    return (pairs & (pairs >>> (2 * shift))) != 0;
+  }
+
+  /**
+   * Counts the consecutive discs on the line through the given cell in both directions.
+   *
+   * @param board      the bitboard of the player
+   * @param row        the row of the cell
+   * @param column     the column of the cell
+   * @param rowStep    the row increment of the direction
+   * @param columnStep the column increment of the direction
+   * @return the number of consecutive discs including the given cell, capped at the win length
+   */
+  private int countLine(long[] board, int row, int column, int rowStep, int columnStep) {
+    int count = 1;
+    for (int sign = -1; sign <= 1; sign += 2) {
+      int r = row + sign * rowStep;
+      int c = column + sign * columnStep;
+      while (count < winLength && r >= 0 && r < rows && c >= 0 && c < columns
+          && testBit(board, c * height + r)) {
+        count++;
+        r += sign * rowStep;
+        c += sign * columnStep;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Checks whether the given bit is set on a bitboard.
+   *
+   * @param board the bitboard
+   * @param bit   the index of the bit
+   * @return true if the bit is set
+   */
+  private static boolean testBit(long[] board, int bit) {
+    return (board[bit / WORD_BITS] & (1L << (bit % WORD_BITS))) != 0;
+  }
+
+  /**
+   * Clears the given bit on a bitboard.
+   *
+   * @param board the bitboard
+   * @param bit   the index of the bit
+   */
+  private static void clearBit(long[] board, int bit) {
+    board[bit / WORD_BITS] &= ~(1L << (bit % WORD_BITS));
+  }
+
+  /**
+   * Sets the given bit on a bitboard.
+   *
+   * @param board the bitboard
+   * @param bit   the index of the bit
+   */
+  private static void setBit(long[] board, int bit) {
+    board[bit / WORD_BITS] |= 1L << (bit % WORD_BITS);
+  }
+}
@@ -6,8 +6,6 @@ package connect;
 // the game state to the user.
 
 import java.io.IOException;
-import java.util.InputMismatchException;
-import java.util.Scanner;
 
 /**
  * Represents a Controller for Connect Four: handle user moves by executing them
@@ -16,6 +14,10 @@ import java.util.Scanner;
 public class ConnectFourConsoleController implements ConnectFourController {
   private Readable in;
   private ConnectFourView view;
+  private final Player computerPlayer;
+  private final MoveSearcher searcher;
+  private GameEventListener listener = GameEventListener.NONE;
+  private InputTokenizer tokenizer;
 
   /**
    * Constructs a new ConnectFourConsoleController object with the specified input and view.
@@ -26,30 +28,116 @@ public class ConnectFourConsoleController implements ConnectFourController {
   public ConnectFourConsoleController(Readable in, ConnectFourView view) {
     this.in = in;
     this.view = view;
+    this.computerPlayer = null;
+    this.searcher = null;
   }
 
+  /**
+   * Constructs a new ConnectFourConsoleController object where one side is played by the
+   * computer and the other side reads its moves from the input.
+   *
+   * @param in             the input source for user moves
+   * @param view           the view to display the game state
+   * @param computerPlayer the player whose moves are chosen by the searcher
+   * @param searcher       the computer player
+   * @throws IllegalArgumentException if the player or the searcher is null
+   */
+  public ConnectFourConsoleController(Readable in, ConnectFourView view, Player computerPlayer,
+      MoveSearcher searcher) throws IllegalArgumentException {
+    if (computerPlayer == null || searcher == null) {
+      throw new IllegalArgumentException("Computer player and searcher cannot be null");
+    }
+    this.in = in;
+    this.view = view;
+    this.computerPlayer = computerPlayer;
+    this.searcher = searcher;
+  }
 
+  /**
+   * Sets the listener told about the moves, invalid moves, quits and finished games of the games
+   * played from now on.
+   *
+   * @param listener the listener, for example a {@link ModelMetrics}
+   * @throws IllegalArgumentException if the listener is null
+   */
+  public void setListener(GameEventListener listener) throws IllegalArgumentException {
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener cannot be null");
+    }
+    this.listener = listener;
+  }
+
+  /**
+   * Points this controller at another input source, so that it can be reused for another game.
+   * The input read so far from the old source is dropped; the tokenizer and its buffer are kept
+   * for the new source.
+   *
+   * @param in the new input source for user moves
+   * @throws IllegalArgumentException if the input is null
+   */
+  public void setInput(Readable in) throws IllegalArgumentException {
+    if (in == null) {
+      throw new IllegalArgumentException("Input cannot be null");
+    }
+    this.in = in;
+    if (tokenizer != null) {
+      tokenizer.reset(in);
+    }
+  }
+
+  /**
+   * Plays a game on the given model. The input is read through one tokenizer, kept across games
+   * so that input it has read ahead is not lost between games, and rebound to each new input
+   * source.
+   *
+   * @param m a non-null Connect Four Model
+   * @throws IllegalArgumentException if the model is null
+   */
   @Override
   public void playGame(ConnectFourModel m) throws IllegalArgumentException {
-    Scanner scanner = new Scanner(in);
     int move;
     if (m == null) {
       throw new IllegalArgumentException("Model cannot be null");
     }
+    if (tokenizer == null) {
+      tokenizer = new InputTokenizer(in);
+    }
     try {
       while (!m.isGameOver()) {
         try {
-          this.view.displayGameState(m.toString());
-          this.view.displayPlayerTurn(m.getTurn().getDisplayName());
-          move = scanner.nextInt();
-          if (move == 0) {
-            this.view.displayGameQuit(m.toString());
-            break;
+          this.view.displayGameState(m);
+          if (computerPlayer != null && m.getTurn() == computerPlayer) {
+            this.view.flush();
+            move = searcher.findMove(m);
+            this.view.displayComputerMove(m.getTurn().getDisplayName(), move);
+          } else {
+            this.view.displayPlayerTurn(m.getTurn().getDisplayName());
+            this.view.flush();
+            if (tokenizer.hasNext() && !tokenizer.hasNextInt()) {
+              this.view.displayErrorMessage("Is not a number!");
+              listener.onInvalidInput();
+              tokenizer.skipLine();
+              continue;
+            }
+            move = tokenizer.nextInt();
+            if (move == 0) {
+              this.view.displayGameQuit(m);
+              listener.onQuit();
+              break;
+            }
+          }
+          Player player = m.getTurn();
+          try {
+            m.makeMove(move);
+          } catch (IllegalArgumentException e) {
+            listener.onInvalidMove(move);
+            throw e;
           }
-          m.makeMove(move);
+          listener.onMove(player, move);
           if (m.isGameOver()) {
-            this.view.displayGameState(m.toString());
+            this.view.displayGameState(m);
             Player winner = m.getWinner();
+            listener.onGameOver(winner);
             if (winner == null) {
               this.view.displayGameOver(null);
             } else if (winner == Player.RED) {
@@ -58,20 +146,23 @@ public class ConnectFourConsoleController implements ConnectFourController {
               this.view.displayGameOver("YELLOW");
             }
             this.view.askPlayAgain();
-            String playAgain = scanner.next();
-            if ("y".equals(playAgain)) {
+            this.view.flush();
+            if (tokenizer.nextWordEquals("y")) {
               m.resetBoard();
             }
           }
-        } catch (InputMismatchException e) {
-          this.view.displayErrorMessage("Is not a number!");
-          scanner.nextLine();
         } catch (IllegalArgumentException e) {
           this.view.displayInvalidNumber(e.getMessage());
         }
       }
     } catch (IOException e) {
       e.printStackTrace();
+    } finally {
+      try {
+        this.view.flush();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
     }
   }
 }
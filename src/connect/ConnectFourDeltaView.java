@@ -0,0 +1,101 @@
+package connect;
+
+import java.io.IOException;
+
+/**
+ * A view that sends the changes to the board instead of the whole board every turn, for remote
+ * clients and spectator feeds. It listens to an {@link ObservableModel}; when the game state is
+ * displayed it writes one line per move made since the last time,
+ *
+ * <pre>
+ * move &lt;number&gt; &lt;column&gt; &lt;row&gt; &lt;R|Y&gt; [win|tie]
+ * </pre>
+ *
+ * <p>so a turn costs the same however large the board is. The whole board is sent as a keyframe,
+ * a line {@code keyframe <number of moves>} followed by the board in the usual layout, the first
+ * time, after a move was taken back or the board was reset, and once more than a given number of
+ * moves were sent since the last one, so that a client that missed something catches up. All
+ * other messages are the same as those of {@link ConnectFourView}.
+ */
+public class ConnectFourDeltaView extends ConnectFourView implements MoveListener {
+  private final int keyframeInterval;
+  private final StringBuilder pending;
+  private boolean keyframeNeeded;
+  private int movesSinceKeyframe;
+
+  /**
+   * Constructs a new ConnectFourDeltaView object that sends a keyframe every 32 moves.
+   *
+   * @param out the output destination for game state and messages
+   */
+  public ConnectFourDeltaView(Appendable out) {
+    this(out, false, 32);
+  }
+
+  /**
+   * Constructs a new ConnectFourDeltaView object.
+   *
+   * @param out              the output destination for game state and messages
+   * @param buffered         whether to hold the output back until {@link #flush()} is called
+   * @param keyframeInterval the number of moves sent before the whole board is sent again
+   * @throws IllegalArgumentException if the keyframe interval is not positive
+   */
+  public ConnectFourDeltaView(Appendable out, boolean buffered, int keyframeInterval)
+      throws IllegalArgumentException {
+    super(out, buffered);
+    if (keyframeInterval <= 0) {
+      throw new IllegalArgumentException("Keyframe interval must be positive");
+    }
+    this.keyframeInterval = keyframeInterval;
+    this.pending = new StringBuilder();
+    this.keyframeNeeded = true;
+  }
+
+  /**
+   * Points this view at another output destination. The next display there starts with a
+   * keyframe.
+   *
+   * @param out the new output destination for game state and messages
+   */
+  @Override
+  public void setOutput(Appendable out) {
+    super.setOutput(out);
+    keyframeNeeded = true;
+    pending.setLength(0);
+  }
+
+  @Override
+  public void onMove(MoveEvent event) {
+    if (!keyframeNeeded) {
+      pending.append(event).append('\n');
+      movesSinceKeyframe++;
+    }
+  }
+
+  @Override
+  public void onBoardChanged(ConnectFourModel m) {
+    keyframeNeeded = true;
+    pending.setLength(0);
+  }
+
+  /**
+   * Displays what changed on the board since it was last displayed: the moves made since then,
+   * nothing if there were none, or a keyframe with the whole board when one is due.
+   *
+   * @param m the model whose board to display
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public void displayGameState(ConnectFourModel m) throws IOException {
+    Appendable out = output();
+    if (keyframeNeeded || movesSinceKeyframe > keyframeInterval) {
+      out.append("keyframe ").append(String.valueOf(m.getMoveHistory().length)).append("\n");
+      m.renderBoard(out);
+      keyframeNeeded = false;
+      movesSinceKeyframe = 0;
+    } else {
+      out.append(pending);
+    }
+    pending.setLength(0);
+  }
+}
@@ -0,0 +1,240 @@
+package connect;
+
+import java.io.IOException;
+
+/**
+ * An event-driven controller for Connect Four. Instead of blocking on a {@code Readable} like
+ * {@link ConnectFourConsoleController}, it is handed the user's input as it arrives, in chunks
+ * of any size, and reacts to each complete word. The game plays exactly like on the console:
+ * entering 0 quits, anything that is not a number is rejected along with the rest of its line,
+ * invalid moves are reported, and at the end of a game the user is asked whether to play again.
+ * Since no thread waits for input, a few threads can drive a very large number of games.
+ *
+ * <p>Words longer than {@value #MAX_WORD_LENGTH} characters are not collected; they are
+ * rejected as not a number as soon as they grow too long, so that a client sending no
+ * whitespace cannot make the controller hold on to everything it sends.
+ */
+public class ConnectFourEventController {
+  private static final int MAX_WORD_LENGTH = 64;
+  private static final int AWAITING_MOVE = 0;
+  private static final int AWAITING_PLAY_AGAIN = 1;
+  private static final int FINISHED = 2;
+
+  private final ConnectFourView view;
+  private final StringBuilder token;
+  private ConnectFourModel m;
+  private int state;
+  private boolean skippingLine;
+  private GameEventListener listener = GameEventListener.NONE;
+
+  /**
+   * Constructs a new ConnectFourEventController object that displays the game on the given
+   * view.
+   *
+   * @param view the view to display the game state
+   */
+  public ConnectFourEventController(ConnectFourView view) {
+    this.view = view;
+    this.token = new StringBuilder();
+    this.state = FINISHED;
+  }
+
+  /**
+   * Sets the listener told about the moves, invalid moves, quits and finished games of the games
+   * played from now on.
+   *
+   * @param listener the listener, for example a {@link ModelMetrics}
+   * @throws IllegalArgumentException if the listener is null
+   */
+  public void setListener(GameEventListener listener) throws IllegalArgumentException {
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener cannot be null");
+    }
+    this.listener = listener;
+  }
+
+  /**
+   * Starts a game on the given model and displays the first prompt. A buffered view is flushed
+   * whenever the controller is done with the input it was handed.
+   *
+   * @param m a non-null Connect Four Model
+   * @throws IllegalArgumentException if the model is null
+   * @throws IOException              if an I/O error occurs
+   */
+  public void start(ConnectFourModel m) throws IllegalArgumentException, IOException {
+    if (m == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    this.m = m;
+    token.setLength(0);
+    skippingLine = false;
+    nextTurn();
+    view.flush();
+  }
+
+  /**
+   * Handles the next chunk of input. Words may be split across chunks; a word is only acted on
+   * once the whitespace after it has arrived.
+   *
+   * @param input the characters received
+   * @throws IOException if an I/O error occurs
+   */
+  public void onInput(CharSequence input) throws IOException {
+    for (int i = 0; i < input.length() && state != FINISHED; i++) {
+      char c = input.charAt(i);
+      if (skippingLine) {
+        skippingLine = c != '\n';
+      } else if (Character.isWhitespace(c)) {
+        endToken();
+        skippingLine = skippingLine && c != '\n';
+      } else if (token.length() < MAX_WORD_LENGTH) {
+        token.append(c);
+      } else {
+        rejectLongWord();
+      }
+    }
+    view.flush();
+  }
+
+  /**
+   * Handles the end of the input, acting on the last word if it was not followed by whitespace.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public void onEndOfInput() throws IOException {
+    if (!skippingLine) {
+      endToken();
+    }
+    view.flush();
+  }
+
+  /**
+   * Checks whether the game has ended, because the user quit or did not want to play again.
+   *
+   * @return true if no more input is expected
+   */
+  public boolean isFinished() {
+    return state == FINISHED;
+  }
+
+  /**
+   * Acts on the word collected so far, if there is one.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  private void endToken() throws IOException {
+    if (token.length() == 0) {
+      return;
+    }
+    String word = token.toString();
+    token.setLength(0);
+    if (state == AWAITING_MOVE) {
+      onMove(word);
+    } else if (state == AWAITING_PLAY_AGAIN) {
+      onPlayAgain(word);
+    }
+  }
+
+  /**
+   * Handles a word entered as a move.
+   *
+   * @param word the word
+   * @throws IOException if an I/O error occurs
+   */
+  private void onMove(String word) throws IOException {
+    int move;
+    try {
+      move = Integer.parseInt(word);
+    } catch (NumberFormatException e) {
+      rejectWord();
+      return;
+    }
+    if (move == 0) {
+      view.displayGameQuit(m);
+      listener.onQuit();
+      state = FINISHED;
+      return;
+    }
+    Player player = m.getTurn();
+    try {
+      m.makeMove(move);
+    } catch (IllegalArgumentException e) {
+      view.displayInvalidNumber(e.getMessage());
+      listener.onInvalidMove(move);
+      nextTurn();
+      return;
+    }
+    listener.onMove(player, move);
+    if (m.isGameOver()) {
+      view.displayGameState(m);
+      Player winner = m.getWinner();
+      listener.onGameOver(winner);
+      if (winner == null) {
+        view.displayGameOver(null);
+      } else if (winner == Player.RED) {
+        view.displayGameOver("RED");
+      } else if (winner == Player.YELLOW) {
+        view.displayGameOver("YELLOW");
+      }
+      view.askPlayAgain();
+      state = AWAITING_PLAY_AGAIN;
+    } else {
+      nextTurn();
+    }
+  }
+
+  /**
+   * Rejects a word that grew longer than a move or an answer can be, dropping what was collected
+   * of it.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  private void rejectLongWord() throws IOException {
+    token.setLength(0);
+    if (state == AWAITING_MOVE) {
+      rejectWord();
+    } else {
+      onPlayAgain("");
+    }
+  }
+
+  /**
+   * Rejects a word entered as a move that is not a number, skipping the rest of its line.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  private void rejectWord() throws IOException {
+    view.displayErrorMessage("Is not a number!");
+    listener.onInvalidInput();
+    skippingLine = true;
+    nextTurn();
+  }
+
+  /**
+   * Handles the answer to the play-again question.
+   *
+   * @param word the answer
+   * @throws IOException if an I/O error occurs
+   */
+  private void onPlayAgain(String word) throws IOException {
+    if ("y".equals(word)) {
+      m.resetBoard();
+    }
+    nextTurn();
+  }
+
+  /**
+   * Prompts for the next move, or finishes if the game is over.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  private void nextTurn() throws IOException {
+    if (m.isGameOver()) {
+      state = FINISHED;
+      return;
+    }
+    view.displayGameState(m);
+    view.displayPlayerTurn(m.getTurn().getDisplayName());
+    state = AWAITING_MOVE;
+  }
+}
@@ -1,5 +1,7 @@
 package connect;
 
+import java.io.IOException;
+
 /**
  * Interface for the Model component in the MVC architecture of a Connect Four game.
  * This interface defines the core functionalities required to manage the game's state,
@@ -20,9 +22,33 @@ public interface ConnectFourModel {
    * If the column is full, the move will be rejected.
    *
    * @param column the column in which to place the disc
-   * @throws IllegalArgumentException if the column is out of bounds
+   * @throws IllegalArgumentException if the column is out of bounds or full
+   * @throws IllegalStateException    if the game is already over
+   */
+  void makeMove(int column) throws IllegalArgumentException, IllegalStateException;
+
+  /**
+   * Takes back the last move, restoring the board, the turn and the winner to what they were
+   * before it. The move can be made again with {@link #redoMove()} until a new move is made.
+   *
+   * @throws IllegalStateException if there is no move to take back
+   */
+  void undoMove() throws IllegalStateException;
+
+  /**
+   * Makes again the last move taken back with {@link #undoMove()}.
+   *
+   * @throws IllegalStateException if there is no move to make again
    */
-  void makeMove(int column) throws IllegalArgumentException;
+  void redoMove() throws IllegalStateException;
+
+  /**
+   * Retrieves the moves that led to the current board, oldest first. Moves taken back with
+   * {@link #undoMove()} are not included.
+   *
+   * @return the columns played, numbered from 1 like in {@link #makeMove(int)}, in a new array
+   */
+  int[] getMoveHistory();
 
   /**
    * Retrieves the player whose turn it is to make a move.
@@ -52,11 +78,64 @@ public interface ConnectFourModel {
    */
   void resetBoard();
 
+  /**
+   * Retrieves the number of discs in the given column, which is also the row (starting at 0 for
+   * the bottom row) that the next disc dropped in that column will occupy. A column is full when
+   * its height equals {@link #getRows()}.
+   *
+   * @param column the column, numbered from 1 like in {@link #makeMove(int)}
+   * @return the number of discs in the column
+   * @throws IllegalArgumentException if the column is out of bounds
+   */
+  int getColumnHeight(int column) throws IllegalArgumentException;
+
+  /**
+   * Retrieves the number of rows of the game board.
+   *
+   * @return the number of rows
+   */
+  int getRows();
+
+  /**
+   * Retrieves the number of columns of the game board.
+   *
+   * @return the number of columns
+   */
+  int getColumns();
+
+  /**
+   * Retrieves the number of discs in a line needed to win, 4 in standard Connect Four.
+   *
+   * @return the win length
+   */
+  int getWinLength();
+
+  /**
+   * Retrieves the disc in a single cell of the game board, read straight from the board without
+   * copying it. The cells are indexed the same way as in {@link #getBoardState()}.
+   *
+   * @param row    the row of the cell, starting at 0 for the bottom row
+   * @param column the column of the cell, starting at 0 for the leftmost column
+   * @return the player owning the disc, or null if the cell is empty
+   * @throws IllegalArgumentException if the cell is outside of the board
+   */
+  Player cellAt(int row, int column) throws IllegalArgumentException;
+
   /**
    * Retrieves the current state of the game board. This method is useful
    * for the View component to display the current game status.
    *
-   * @return a 2D array representing the current state of the board
+   * @return a 2D array representing the current state of the board, which is a copy that
+   *         the caller may change; use {@link #cellAt(int, int)} to read single cells instead
    */
   Player[][] getBoardState();
+
+  /**
+   * Writes the text representation of the game board, the same text as {@code toString()}, into
+   * the given destination. Unlike {@code toString()}, this does not need to build a new string.
+   *
+   * @param out the destination
+   * @throws IOException if an I/O error occurs
+   */
+  void renderBoard(Appendable out) throws IOException;
 }
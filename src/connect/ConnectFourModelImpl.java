@@ -1,14 +1,33 @@
 package connect;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 /**
- * The model component in the MVC architecture of a Connect Four game.
+ * The model component in the MVC architecture of a Connect Four game. The number of discs in a
+ * line needed to win can be changed to play Connect-K. A win is detected by counting the run of
+ * discs through the last disc along each direction, so a move costs time proportional to the win
+ * length but not to the size of the board. The moves on the board are kept on a stack, so that
+ * the last move can be taken back and made again in constant time.
+ *
+ * <p>The cells are stored one byte each in a single array, column by column, so that dropping a
+ * disc and checking a column touch consecutive bytes. The byte is 0 for an empty cell and
+ * {@code ordinal() + 1} for a player's disc; {@code Player} values only appear at the interface.
  */
 public class ConnectFourModelImpl implements ConnectFourModel {
-  private Player[][] board;
+  private static final Player[] PLAYERS = {null, Player.RED, Player.YELLOW};
+
+  private byte[] cells;
+  private int[] heights;
   private int moveCounter;
   private int rows;
   private int columns;
-  private final int four = 4;
+  private final int winLength;
+  private Player winner;
+  private BoardRenderer renderer;
+  private int[] history;
+  private int historySize;
+  private int historyEnd;
 
   /**
    * Constructs a new ConnectFourModelImpl object with the default number of rows and columns.
@@ -16,9 +35,11 @@ public class ConnectFourModelImpl implements ConnectFourModel {
   public ConnectFourModelImpl() {
     this.rows = 6;
     this.columns = 7;
-    this.board = new Player[rows][columns];
+    this.cells = new byte[rows * columns];
+    this.heights = new int[columns];
     this.moveCounter = 0;
-
+    this.history = new int[Math.min(rows * columns, 64)];
+    this.winLength = 4;
   }
 
   /**
@@ -28,38 +49,95 @@ public class ConnectFourModelImpl implements ConnectFourModel {
    * @param columns the number of columns in the game board
    */
   public ConnectFourModelImpl(int rows, int columns) throws IllegalArgumentException {
+    this(rows, columns, 4);
+  }
+
+  /**
+   * Constructs a new ConnectFourModelImpl object with the specified number of rows and columns,
+   * won by the specified number of discs in a line.
+   *
+   * @param rows      the number of rows in the game board
+   * @param columns   the number of columns in the game board
+   * @param winLength the number of discs in a line needed to win
+   * @throws IllegalArgumentException if the board is smaller than 4x4, or the win length is less
+   *                                  than 2 or longer than the board
+   */
+  public ConnectFourModelImpl(int rows, int columns, int winLength)
+      throws IllegalArgumentException {
     if (rows < 4 || columns < 4) {
       throw new IllegalArgumentException("Board size must be at least 4x4");
     }
+    if (winLength < 2 || winLength > Math.max(rows, columns)) {
+      throw new IllegalArgumentException("Win length must be between 2 and the board size");
+    }
+    this.winLength = winLength;
     this.rows = rows;
     this.columns = columns;
-    this.board = new Player[rows][columns];
+    this.cells = new byte[rows * columns];
+    this.heights = new int[columns];
     this.moveCounter = 0;
+    this.history = new int[Math.min(rows * columns, 64)];
   }
 
   @Override
   public void initializeBoard() {
-    for (int i = 0; i < rows; i++) {
-      for (int j = 0; j < columns; j++) {
-        board[i][j] = null;
-      }
+    Arrays.fill(cells, (byte) 0);
+    for (int j = 0; j < columns; j++) {
+      heights[j] = 0;
+    }
+    winner = null;
+    historySize = 0;
+    historyEnd = 0;
+    if (renderer != null) {
+      renderer.clear();
     }
   }
 
   @Override
-  public void makeMove(int column) throws IllegalArgumentException {
+  public void makeMove(int column) throws IllegalArgumentException, IllegalStateException {
     if (column < 1 || column > columns) {
       throw new IllegalArgumentException("Column out of bounds");
     }
-    if (board[rows - 1][column - 1] != null) {
+    if (heights[column - 1] == rows) {
       throw new IllegalArgumentException("Column is full");
     }
-    int row = 0;
-    while (row < rows - 1 && board[row][column - 1] != null) {
-      row++;
+    if (isGameOver()) {
+      throw new IllegalStateException("Game is over");
     }
-    board[row][column - 1] = getTurn();
-    moveCounter++;
+    place(column - 1);
+    historyEnd = historySize;
+  }
+
+  @Override
+  public void undoMove() throws IllegalStateException {
+    if (historySize == 0) {
+      throw new IllegalStateException("No move to undo");
+    }
+    int column = history[--historySize];
+    int row = --heights[column];
+    cells[column * rows + row] = 0;
+    moveCounter--;
+    winner = null;
+    if (renderer != null) {
+      renderer.set(row, column, null);
+    }
+  }
+
+  @Override
+  public void redoMove() throws IllegalStateException {
+    if (historySize == historyEnd) {
+      throw new IllegalStateException("No move to redo");
+    }
+    place(history[historySize]);
+  }
+
+  @Override
+  public int[] getMoveHistory() {
+    int[] moves = Arrays.copyOf(history, historySize);
+    for (int i = 0; i < moves.length; i++) {
+      moves[i]++;
+    }
+    return moves;
   }
 
   @Override
@@ -72,30 +150,11 @@ public class ConnectFourModelImpl implements ConnectFourModel {
 
   @Override
   public boolean isGameOver() {
-    if (moveCounter >= rows * columns) {
-      return true;
-    }
-    if (getWinner() != null) {
-      return true;
-    }
-    return false;
+    return winner != null || moveCounter >= rows * columns;
   }
 
   @Override
   public Player getWinner() {
-    Player winner = checkForFourHorizontal();
-    if (winner != null) {
-      return winner;
-    }
-    winner = checkForFourVertical();
-    if (winner != null) {
-      return winner;
-    }
-    winner = checkForFourDiagonalDown();
-    if (winner != null) {
-      return winner;
-    }
-    winner = checkForFourDiagonalUp();
     return winner;
   }
 
@@ -105,124 +164,138 @@ public class ConnectFourModelImpl implements ConnectFourModel {
     moveCounter = 0;
   }
 
+  @Override
+  public int getColumnHeight(int column) throws IllegalArgumentException {
+    if (column < 1 || column > columns) {
+      throw new IllegalArgumentException("Column out of bounds");
+    }
+    return heights[column - 1];
+  }
+
+  @Override
+  public int getRows() {
+    return rows;
+  }
+
+  @Override
+  public int getColumns() {
+    return columns;
+  }
+
+  @Override
+  public int getWinLength() {
+    return winLength;
+  }
+
+  @Override
+  public Player cellAt(int row, int column) throws IllegalArgumentException {
+    if (row < 0 || row >= rows || column < 0 || column >= columns) {
+      throw new IllegalArgumentException("Cell out of bounds");
+    }
+    return PLAYERS[cells[column * rows + row]];
+  }
+
   @Override
   public Player[][] getBoardState() {
     Player[][] deepCopy = new Player[rows][columns];
-    for (int i = 0; i < rows; i++) {
-      for (int j = 0; j < columns; j++) {
-        deepCopy[i][j] = board[i][j];
+    for (int j = 0; j < columns; j++) {
+      for (int i = 0; i < heights[j]; i++) {
+        deepCopy[i][j] = PLAYERS[cells[j * rows + i]];
       }
     }
     return deepCopy;
   }
 
+  @Override
+  public void renderBoard(Appendable out) throws IOException {
+    renderer().renderTo(out);
+  }
+
   @Override
   public String toString() {
-    StringBuilder sb = new StringBuilder();
-    for (int i = rows - 1; i >= 0; i--) {
-      sb.append(i);
-      sb.append(": ");
-      for (int j = 0; j < columns; j++) {
-        if (board[i][j] == null) {
-          sb.append("n ");
-        } else {
-          sb.append(board[i][j].getDisplayName());
-          sb.append(" ");
-        }
-      }
-      sb.append("\n");
-    }
-    return sb.toString();
+    return renderer().toString();
   }
 
   /**
-   * Checks for four consecutive discs of the same player in a row. From left to right.
+   * Retrieves the renderer of the board, creating it from the current discs the first time the
+   * board is displayed. From then on every move updates the renderer.
    *
-   * @return the player who has four consecutive discs in a row, or null if no player has four.
+   * @return the renderer
    */
-  private Player checkForFourHorizontal() {
-    Player playerToReturn = null;
-    //outLoop:
-    for (int row = 0; row < rows; row++) {
-      for (int col = 0; col < columns - (four - 1); col++) {
-        for (int i = col; i < col + four; i++) {
-          if (board[row][col] != board[row][i] || board[row][col] == null) {
-            break;
-          } else if (i == col + four - 1) {
-            playerToReturn = board[row][col];
-            //break outLoop;
-          }
+  private BoardRenderer renderer() {
+    if (renderer == null) {
+      renderer = new BoardRenderer(rows, columns);
+      for (int i = 0; i < rows; i++) {
+        for (int j = 0; j < columns; j++) {
+          renderer.set(i, j, PLAYERS[cells[j * rows + i]]);
         }
       }
     }
-    return playerToReturn;
+    return renderer;
   }
 
   /**
-   * Checks for four consecutive discs of the same player in a column. From bottom to top.
+   * Drops a disc for the player to move in the given column, pushes the move on the history and
+   * checks whether it wins. The history grows as needed, up to one entry per cell. The move must
+   * be legal.
    *
-   * @return the player who has four consecutive discs in a column, or null if no player has four.
+   * @param column the column, starting at 0
    */
-  private Player checkForFourVertical() {
-    Player playerToReturn = null;
-    for (int row = 0; row < rows - (four - 1); row++) {
-      for (int col = 0; col < columns; col++) {
-        for (int i = row; i < row + four; i++) {
-          if (board[row][col] != board[i][col] || board[row][col] == null) {
-            break;
-          } else if (i == row + four - 1) {
-            playerToReturn = board[row][col];
-            //break outLoop;
-          }
-        }
-      }
+  private void place(int column) {
+    int row = heights[column]++;
+    Player player = getTurn();
+    cells[column * rows + row] = (byte) (player.ordinal() + 1);
+    moveCounter++;
+    if (historySize == history.length) {
+      history = Arrays.copyOf(history, Math.min(historySize * 2, rows * columns));
+    }
+    history[historySize++] = column;
+    if (renderer != null) {
+      renderer.set(row, column, player);
+    }
+    if (isWinningMove(row, column)) {
+      winner = player;
     }
-    return playerToReturn;
   }
 
   /**
-   * Checks for four consecutive discs of the same player in a
-   * diagonal from top left to bottom right.
+   * Counts the consecutive discs of the same player on the line through the given cell,
+   * looking both ways along the given direction.
    *
-   * @return the player who has four consecutive discs in a
-   *         diagonal, or null if no player has four.
+   * @param row        the row of the cell
+   * @param column     the column of the cell
+   * @param rowStep    the row increment of the direction
+   * @param columnStep the column increment of the direction
+   * @return the number of consecutive discs including the given cell, capped at the win length
    */
-  private Player checkForFourDiagonalDown() {
-    Player playerToReturn = null;
-    for (int row = four - 1; row < rows; row++) {
-      for (int col = 0; col < columns - (four - 1); col++) {
-        for (int i = 0; i < four; i++) {
-          if (board[row][col] != board[row - i][col + i] || board[row][col] == null) {
-            break;
-          } else if (i == four - 1) {
-            playerToReturn = board[row][col];
-          }
-        }
+  private int countLine(int row, int column, int rowStep, int columnStep) {
+    byte player = cells[column * rows + row];
+    int count = 1;
+    for (int sign = -1; sign <= 1; sign += 2) {
+      int r = row + sign * rowStep;
+      int c = column + sign * columnStep;
+      while (count < winLength && r >= 0 && r < rows && c >= 0 && c < columns
+          && cells[c * rows + r] == player) {
+        count++;
+        r += sign * rowStep;
+        c += sign * columnStep;
       }
     }
-    return playerToReturn;
+    return count;
   }
 
   /**
-   * Checks for four consecutive discs of the same player in a diagonal
-   * from bottom left to top right.
+   * Checks whether the disc at the given cell completes a winning line in any direction.
    *
-   * @return the player who has four consecutive discs in a diagonal, or null if no player has four.
+   * @param row    the row of the disc that was just placed
+   * @param column the column of the disc that was just placed
+   * @return true if the disc is part of a line of consecutive discs of the same player as long as
+   *         the win length
    */
-  private Player checkForFourDiagonalUp() {
-    Player playerToReturn = null;
-    for (int row = 0; row < rows - (four - 1); row++) {
-      for (int col = 0; col < columns - (four - 1); col++) {
-        for (int i = 0; i < four; i++) {
-          if (board[row][col] != board[row + i][col + i] || board[row][col] == null) {
-            break;
-          } else if (i == four - 1) {
-            playerToReturn = board[row][col];
-          }
-        }
-      }
-    }
-    return playerToReturn;
+  private boolean isWinningMove(int row, int column) {
+    return countLine(row, column, 1, 0) >= winLength
+        || countLine(row, column, 0, 1) >= winLength
+        || countLine(row, column, 1, 1) >= winLength
+        || countLine(row, column, -1, 1) >= winLength;
   }
-
 }
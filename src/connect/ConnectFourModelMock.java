@@ -1,5 +1,7 @@
 package connect;
 
+import java.io.IOException;
+
 /**
  * A mock model for testing the ConnectFourController class.
  */
@@ -33,6 +35,21 @@ public class ConnectFourModelMock implements ConnectFourModel {
     }
   }
 
+  @Override
+  public void undoMove() throws IllegalStateException {
+
+  }
+
+  @Override
+  public void redoMove() throws IllegalStateException {
+
+  }
+
+  @Override
+  public int[] getMoveHistory() {
+    return new int[0];
+  }
+
   @Override
   public Player getTurn() {
     return Player.RED;
@@ -58,11 +75,41 @@ public class ConnectFourModelMock implements ConnectFourModel {
 
   }
 
+  @Override
+  public int getColumnHeight(int column) throws IllegalArgumentException {
+    return 0;
+  }
+
+  @Override
+  public int getRows() {
+    return 6;
+  }
+
+  @Override
+  public int getColumns() {
+    return 7;
+  }
+
+  @Override
+  public int getWinLength() {
+    return 4;
+  }
+
+  @Override
+  public Player cellAt(int row, int column) throws IllegalArgumentException {
+    return null;
+  }
+
   @Override
   public Player[][] getBoardState() {
     return new Player[0][];
   }
 
+  @Override
+  public void renderBoard(Appendable out) throws IOException {
+    out.append(toStringResponse);
+  }
+
   @Override
   public String toString() {
     return toStringResponse;
@@ -0,0 +1,390 @@
+package connect;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hosts games of Connect Four over TCP with non-blocking I/O. A fixed number of selector
+ * threads multiplex all connections; each connection gets its own model, view and
+ * {@link ConnectFourEventController}, which is fed whatever input arrives and whose output is
+ * written back when the connection can take it. No thread ever waits for a single client, so
+ * the number of games is not limited by the number of threads.
+ *
+ * <p>Input that is not valid UTF-8 is replaced like the blocking server's reader replaces it,
+ * and a client that sends faster than it reads is not read from while more than
+ * {@value #MAX_PENDING_OUTPUT} characters of its output wait to be sent, so that no client can
+ * stall its selector thread or fill the heap.
+ */
+public class ConnectFourNioServer implements AutoCloseable {
+  private static final int MAX_PENDING_OUTPUT = 64 * 1024;
+
+  private final ServerSocketChannel serverChannel;
+  private final Supplier<ConnectFourModel> modelFactory;
+  private final EventLoop[] loops;
+  private final AtomicInteger sessions;
+  private int nextLoop;
+
+  /**
+   * Constructs a new ConnectFourNioServer object listening on the given port. The server does
+   * not accept clients until {@link #start()} is called.
+   *
+   * @param port            the port to listen on, or 0 for any free port
+   * @param selectorThreads the number of threads serving the connections
+   * @param modelFactory    creates the model of each new session
+   * @throws IllegalArgumentException if the number of threads is not positive or the factory is
+   *                                  null
+   * @throws IOException              if the port cannot be opened
+   */
+  public ConnectFourNioServer(int port, int selectorThreads,
+      Supplier<ConnectFourModel> modelFactory) throws IllegalArgumentException, IOException {
+    if (selectorThreads <= 0) {
+      throw new IllegalArgumentException("Selector threads must be positive");
+    }
+    if (modelFactory == null) {
+      throw new IllegalArgumentException("Model factory cannot be null");
+    }
+    this.modelFactory = modelFactory;
+    this.sessions = new AtomicInteger();
+    this.serverChannel = ServerSocketChannel.open();
+    serverChannel.bind(new InetSocketAddress(port));
+    serverChannel.configureBlocking(false);
+    this.loops = new EventLoop[selectorThreads];
+    for (int i = 0; i < selectorThreads; i++) {
+      loops[i] = new EventLoop(Selector.open(), "connect-four-selector-" + i);
+    }
+    serverChannel.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+  }
+
+  /**
+   * Starts the selector threads.
+   */
+  public void start() {
+    for (EventLoop loop : loops) {
+      loop.thread.start();
+    }
+  }
+
+  /**
+   * Retrieves the port the server listens on.
+   *
+   * @return the local port
+   * @throws IOException if the port cannot be read
+   */
+  public int getPort() throws IOException {
+    return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+  }
+
+  /**
+   * Retrieves the number of games being played right now.
+   *
+   * @return the number of open sessions
+   */
+  public int getActiveSessions() {
+    return sessions.get();
+  }
+
+  /**
+   * Stops the selector threads and disconnects every client.
+   */
+  @Override
+  public void close() {
+    try {
+      serverChannel.close();
+    } catch (IOException e) {
+      // the selectors are closed either way
+    }
+    for (EventLoop loop : loops) {
+      loop.shutdown();
+    }
+    for (EventLoop loop : loops) {
+      try {
+        loop.thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Accepts all pending connections and hands them to the selector threads in turn.
+   *
+   * @throws IOException if a connection cannot be accepted
+   */
+  private void accept() throws IOException {
+    SocketChannel channel;
+    while ((channel = serverChannel.accept()) != null) {
+      channel.configureBlocking(false);
+      EventLoop loop = loops[nextLoop];
+      nextLoop = (nextLoop + 1) % loops.length;
+      loop.register(channel);
+    }
+  }
+
+  /**
+   * A selector thread and the connections it serves.
+   */
+  private final class EventLoop implements Runnable {
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<SocketChannel> newChannels;
+    private volatile boolean running;
+
+    /**
+     * Constructs a new EventLoop object.
+     *
+     * @param selector the selector of the loop
+     * @param name     the name of the thread
+     */
+    private EventLoop(Selector selector, String name) {
+      this.selector = selector;
+      this.thread = new Thread(this, name);
+      this.newChannels = new ConcurrentLinkedQueue<>();
+      this.running = true;
+    }
+
+    /**
+     * Hands a new connection to this loop. It is registered by the loop's own thread.
+     *
+     * @param channel the connection
+     */
+    private void register(SocketChannel channel) {
+      newChannels.add(channel);
+      selector.wakeup();
+    }
+
+    /**
+     * Stops the loop and closes its connections.
+     */
+    private void shutdown() {
+      running = false;
+      selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (running) {
+          selector.select();
+          SocketChannel channel;
+          while ((channel = newChannels.poll()) != null) {
+            startSession(channel);
+          }
+          Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+          while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            handle(key);
+          }
+        }
+      } catch (IOException | ClosedSelectorException e) {
+        if (running) {
+          e.printStackTrace();
+        }
+      } finally {
+        for (SelectionKey key : selector.keys()) {
+          if (key.attachment() instanceof Session) {
+            ((Session) key.attachment()).close();
+          }
+        }
+        try {
+          selector.close();
+        } catch (IOException e) {
+          // nothing left to do with a selector that cannot be closed
+        }
+      }
+    }
+
+    /**
+     * Registers a new connection and sends it the first prompt.
+     *
+     * @param channel the connection
+     */
+    private void startSession(SocketChannel channel) {
+      Session session = null;
+      try {
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        session = new Session(channel, key);
+        key.attach(session);
+        sessions.incrementAndGet();
+        session.start();
+      } catch (IOException | RuntimeException e) {
+        if (e instanceof RuntimeException) {
+          e.printStackTrace();
+        }
+        if (session != null) {
+          session.close();
+          return;
+        }
+        try {
+          channel.close();
+        } catch (IOException ignored) {
+          // the connection is gone either way
+        }
+      }
+    }
+
+    /**
+     * Reacts to a connection being ready. A session that fails, whether its connection breaks or
+     * its game throws, is closed on its own and the loop goes on serving the others.
+     *
+     * @param key the selection key of the connection
+     */
+    private void handle(SelectionKey key) {
+      if (!key.isValid()) {
+        return;
+      }
+      if (key.isAcceptable()) {
+        try {
+          accept();
+        } catch (IOException e) {
+          if (running && serverChannel.isOpen()) {
+            e.printStackTrace();
+          }
+        }
+        return;
+      }
+      Session session = (Session) key.attachment();
+      try {
+        if (key.isReadable()) {
+          session.read();
+        }
+        if (key.isValid() && key.isWritable()) {
+          session.write();
+        }
+      } catch (IOException e) {
+        session.close();
+      } catch (RuntimeException e) {
+        e.printStackTrace();
+        session.close();
+      }
+    }
+  }
+
+  /**
+   * One client's game: the connection, its controller and the input and output not yet
+   * handled.
+   */
+  private final class Session {
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final StringBuilder output;
+    private final ConnectFourEventController controller;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer inBytes;
+    private final CharBuffer inChars;
+    private ByteBuffer outBytes;
+    private boolean endOfInput;
+    private boolean closed;
+
+    /**
+     * Constructs a new Session object for a new connection.
+     *
+     * @param channel the connection
+     * @param key     the selection key of the connection
+     */
+    private Session(SocketChannel channel, SelectionKey key) {
+      this.channel = channel;
+      this.key = key;
+      this.output = new StringBuilder();
+      this.controller = new ConnectFourEventController(new ConnectFourView(output));
+      this.decoder = StandardCharsets.UTF_8.newDecoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      this.inBytes = ByteBuffer.allocate(4096);
+      this.inChars = CharBuffer.allocate(4096);
+      this.outBytes = ByteBuffer.allocate(0);
+    }
+
+    /**
+     * Starts the game and sends the first prompt.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private void start() throws IOException {
+      controller.start(modelFactory.get());
+      write();
+    }
+
+    /**
+     * Reads what the client sent and lets the controller handle it.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private void read() throws IOException {
+      int read = channel.read(inBytes);
+      inBytes.flip();
+      decoder.decode(inBytes, inChars, read == -1);
+      inBytes.compact();
+      inChars.flip();
+      controller.onInput(inChars);
+      inChars.clear();
+      if (read == -1) {
+        controller.onEndOfInput();
+        endOfInput = true;
+        if (!controller.isFinished()) {
+          close();
+          return;
+        }
+      }
+      write();
+    }
+
+    /**
+     * Writes as much of the pending output as the connection takes, and closes the connection
+     * once the game has ended and everything has been sent. Reading is paused while too much
+     * output is pending and resumed once the client has taken enough of it.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private void write() throws IOException {
+      if (!outBytes.hasRemaining() && output.length() > 0) {
+        outBytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(output));
+        output.setLength(0);
+      }
+      channel.write(outBytes);
+      int pending = outBytes.remaining() + output.length();
+      if (pending == 0 && controller.isFinished()) {
+        close();
+        return;
+      }
+      int ops = pending > 0 ? SelectionKey.OP_WRITE : 0;
+      if (!endOfInput && pending <= MAX_PENDING_OUTPUT) {
+        ops |= SelectionKey.OP_READ;
+      }
+      key.interestOps(ops);
+    }
+
+    /**
+     * Closes the connection.
+     */
+    private void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      sessions.decrementAndGet();
+      key.cancel();
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // the connection is gone either way
+      }
+    }
+  }
+}
@@ -0,0 +1,221 @@
+package connect;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Hosts games of Connect Four over TCP. Every client that connects gets a session of its own,
+ * with its own model, view and {@link ConnectFourConsoleController} reading from and writing to
+ * the connection, so the game plays exactly like on the console. Each session runs on its own
+ * virtual thread when the Java version has them (see {@link VirtualThreads}), so that idle or
+ * slow clients do not hold platform threads. Clients beyond the session limit are told that the
+ * server is full and disconnected.
+ */
+public class ConnectFourServer implements AutoCloseable {
+  private static final long ACCEPT_RETRY_MILLIS = 100;
+
+  private final ServerSocket serverSocket;
+  private final Supplier<ConnectFourModel> modelFactory;
+  private final Semaphore sessionPermits;
+  private final ExecutorService sessions;
+  private final Set<Socket> clients;
+  private final Thread acceptor;
+  private volatile boolean running;
+
+  /**
+   * Constructs a new ConnectFourServer object listening on the given port. The server does not
+   * accept clients until {@link #start()} is called.
+   *
+   * @param port         the port to listen on, or 0 for any free port
+   * @param maxSessions  the largest number of games played at the same time
+   * @param modelFactory creates the model of each new session
+   * @throws IllegalArgumentException if the session limit is not positive or the factory is null
+   * @throws IOException              if the port cannot be opened
+   */
+  public ConnectFourServer(int port, int maxSessions, Supplier<ConnectFourModel> modelFactory)
+      throws IllegalArgumentException, IOException {
+    if (maxSessions <= 0) {
+      throw new IllegalArgumentException("Session limit must be positive");
+    }
+    if (modelFactory == null) {
+      throw new IllegalArgumentException("Model factory cannot be null");
+    }
+    this.serverSocket = new ServerSocket(port);
+    this.modelFactory = modelFactory;
+    this.sessionPermits = new Semaphore(maxSessions);
+    this.sessions = VirtualThreads.newPerTaskExecutor();
+    this.clients = ConcurrentHashMap.newKeySet();
+    this.acceptor = new Thread(this::acceptClients, "connect-four-acceptor");
+  }
+
+  /**
+   * Starts accepting clients on a background thread.
+   */
+  public void start() {
+    running = true;
+    acceptor.start();
+  }
+
+  /**
+   * Retrieves the port the server listens on.
+   *
+   * @return the local port
+   */
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Retrieves the number of games being played right now.
+   *
+   * @return the number of open sessions
+   */
+  public int getActiveSessions() {
+    return clients.size();
+  }
+
+  /**
+   * Stops accepting clients and waits for the games in progress to end. Clients still playing
+   * when the timeout expires are disconnected.
+   *
+   * @param timeoutMillis the longest time to wait for games to end, in milliseconds
+   * @return true if every game ended by itself before the timeout
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  public boolean shutdown(long timeoutMillis) throws InterruptedException {
+    running = false;
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      // the acceptor stops either way
+    }
+    acceptor.join();
+    sessions.shutdown();
+    boolean graceful = sessions.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    if (!graceful) {
+      for (Socket client : clients) {
+        closeQuietly(client);
+      }
+      sessions.shutdownNow();
+      sessions.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+    return graceful;
+  }
+
+  /**
+   * Shuts the server down, disconnecting clients that are still playing after five seconds.
+   */
+  @Override
+  public void close() {
+    try {
+      shutdown(5000);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Accepts clients until the server is shut down or its socket is closed, starting a session for
+   * each one. After a failed accept, for example when the process is out of file descriptors,
+   * the thread waits {@value #ACCEPT_RETRY_MILLIS} milliseconds before trying again, so that a
+   * lasting error does not keep a core busy.
+   */
+  private void acceptClients() {
+    while (running) {
+      Socket client;
+      try {
+        client = serverSocket.accept();
+      } catch (IOException e) {
+        if (!running || serverSocket.isClosed()) {
+          return;
+        }
+        e.printStackTrace();
+        try {
+          Thread.sleep(ACCEPT_RETRY_MILLIS);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        continue;
+      }
+      if (!sessionPermits.tryAcquire()) {
+        reject(client);
+        continue;
+      }
+      clients.add(client);
+      sessions.execute(() -> {
+        try {
+          playSession(client);
+        } finally {
+          clients.remove(client);
+          closeQuietly(client);
+          sessionPermits.release();
+        }
+      });
+    }
+  }
+
+  /**
+   * Plays games with one client until it quits, declines to play again or disconnects.
+   *
+   * @param client the connection to the client
+   */
+  private void playSession(Socket client) {
+    try {
+      Readable in = new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8);
+      PrintStream out = new PrintStream(new BufferedOutputStream(client.getOutputStream()), false,
+          StandardCharsets.UTF_8.name());
+      ConnectFourView view = new ConnectFourView(out, true);
+      new ConnectFourConsoleController(in, view).playGame(modelFactory.get());
+      out.flush();
+    } catch (SocketException e) {
+      // the client disconnected or the server is shutting down
+    } catch (IOException e) {
+      e.printStackTrace();
+    } catch (NoSuchElementException e) {
+      // the controller ran out of input because the client disconnected
+    } catch (RuntimeException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Tells a client that the server is full and disconnects it.
+   *
+   * @param client the connection to the client
+   */
+  private void reject(Socket client) {
+    try {
+      client.getOutputStream().write("Server is full\n".getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      // the client is disconnected below either way
+    }
+    closeQuietly(client);
+  }
+
+  /**
+   * Closes a connection, ignoring errors.
+   *
+   * @param client the connection to close
+   */
+  private static void closeQuietly(Socket client) {
+    try {
+      client.close();
+    } catch (IOException e) {
+      // nothing left to do with a connection that cannot be closed
+    }
+  }
+}
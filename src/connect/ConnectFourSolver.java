@@ -0,0 +1,419 @@
+package connect;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Solves Connect Four positions exactly: it finds the outcome of a position with perfect play
+ * from both sides, how soon it comes, and a move that achieves it. Boards must fit in a single
+ * {@code long} with one extra bit per column, like the bitboard model, so that a position is two
+ * words: the discs of the player to move and the occupied cells.
+ *
+ * <p>The exact score is found by a series of null-window negamax searches that narrow the range
+ * of possible scores. Each search only plays moves that do not hand the opponent an immediate
+ * win, tries first the moves that create the most threats, and keeps upper bounds in a
+ * transposition table. A position and its mirror image are the same to the solver: both are
+ * looked up by the smaller of their {@link PositionKey} keys.
+ *
+ * <p>Every position solved from the outside is remembered in a bounded cache with CLOCK
+ * eviction, which the search also consults, and which can be saved to a file and loaded by a
+ * later run, so that positions that are analysed again are answered without searching.
+ */
+public class ConnectFourSolver {
+  private static final int MOVE_BITS = 8;
+
+  private final int rows;
+  private final int columns;
+  private final int height;
+  private final int cells;
+  private final long bottomMask;
+  private final long boardMask;
+  private final int[] order;
+  private final long[] tableKeys;
+  private final byte[] tableValues;
+  private final int tableMask;
+  private final SolverCache cache;
+  private final long[][] sortedMoves;
+  private final int[][] sortedScores;
+  private long nodes;
+
+  /**
+   * Constructs a new ConnectFourSolver object for the standard board, with a transposition
+   * table of 2^22 slots and room for a million solved positions in the cache.
+   */
+  public ConnectFourSolver() {
+    this(6, 7, 22, 1 << 20);
+  }
+
+  /**
+   * Constructs a new ConnectFourSolver object for boards of the given size.
+   *
+   * @param rows          the number of rows of the board
+   * @param columns       the number of columns of the board
+   * @param tableSizeBits the base-2 logarithm of the number of transposition table slots
+   * @param cacheCapacity the largest number of solved positions to remember
+   * @throws IllegalArgumentException if the board is smaller than 4x4 or too large to solve, or
+   *                                  a size is out of range
+   */
+  public ConnectFourSolver(int rows, int columns, int tableSizeBits, int cacheCapacity)
+      throws IllegalArgumentException {
+    if (rows < 4 || columns < 4) {
+      throw new IllegalArgumentException("Board size must be at least 4x4");
+    }
+    if (!PositionKey.fits(rows, columns, Long.SIZE) || columns > 1 << MOVE_BITS) {
+      throw new IllegalArgumentException("Board is too large to solve");
+    }
+    if (tableSizeBits < 0 || tableSizeBits > 28) {
+      throw new IllegalArgumentException("Table size must be between 2^0 and 2^28");
+    }
+    this.rows = rows;
+    this.columns = columns;
+    this.height = rows + 1;
+    this.cells = rows * columns;
+    long bottom = 0L;
+    for (int j = 0; j < columns; j++) {
+      bottom |= 1L << (j * height);
+    }
+    this.bottomMask = bottom;
+    this.boardMask = bottom * ((1L << rows) - 1);
+    this.order = new int[columns];
+    for (int i = 0; i < columns; i++) {
+      order[i] = columns / 2 + (1 - 2 * (i % 2)) * (i + 1) / 2;
+    }
+    this.tableKeys = new long[1 << tableSizeBits];
+    this.tableValues = new byte[1 << tableSizeBits];
+    this.tableMask = (1 << tableSizeBits) - 1;
+    this.cache = new SolverCache(cacheCapacity);
+    this.sortedMoves = new long[cells + 1][columns];
+    this.sortedScores = new int[cells + 1][columns];
+  }
+
+  /**
+   * Solves the position of a model. The model is not modified.
+   *
+   * @param m a non-null Connect Four Model of the solver's board size whose game is not over
+   * @return the value of the position and a move that achieves it
+   * @throws IllegalArgumentException if the model is null, has another board size or another
+   *                                  win length than 4
+   * @throws IllegalStateException    if the game is already over
+   */
+  public Solution solve(ConnectFourModel m) throws IllegalArgumentException,
+      IllegalStateException {
+    if (m == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    if (m.getRows() != rows || m.getColumns() != columns) {
+      throw new IllegalArgumentException("Board size does not match the solver");
+    }
+    if (m.getWinLength() != 4) {
+      throw new IllegalArgumentException("Solver only plays four in a line");
+    }
+    if (m.isGameOver()) {
+      throw new IllegalStateException("Game is over");
+    }
+    long red = 0L;
+    long mask = 0L;
+    for (int j = 0; j < columns; j++) {
+      int discs = m.getColumnHeight(j + 1);
+      for (int i = 0; i < discs; i++) {
+        long bit = 1L << (j * height + i);
+        mask |= bit;
+        if (m.cellAt(i, j) == Player.RED) {
+          red |= bit;
+        }
+      }
+    }
+    Player turn = m.getTurn();
+    long current = turn == Player.RED ? red : red ^ mask;
+    int moves = Long.bitCount(mask);
+
+    long key = key(moves % 2 == 0 ? current : current ^ mask, mask);
+    long mirrored = PositionKey.mirror(key, rows, columns);
+    boolean flip = mirrored < key;
+    int cached = cache.get(flip ? mirrored : key);
+    int score;
+    int move;
+    if (cached != SolverCache.MISS) {
+      score = cached >> MOVE_BITS;
+      move = cached & ((1 << MOVE_BITS) - 1);
+      if (flip) {
+        move = columns - 1 - move;
+      }
+    } else {
+      score = solve(current, mask, moves);
+      move = bestMove(current, mask, moves, score);
+      int stored = flip ? columns - 1 - move : move;
+      cache.put(flip ? mirrored : key, score << MOVE_BITS | stored);
+    }
+    Player other = turn == Player.RED ? Player.YELLOW : Player.RED;
+    return new Solution(score, move + 1, score > 0 ? turn : score < 0 ? other : null);
+  }
+
+  /**
+   * Saves the solved positions remembered so far to a file, replacing any existing file.
+   *
+   * @param file the file to write
+   * @throws IOException if the file cannot be written
+   */
+  public void saveCache(Path file) throws IOException {
+    cache.save(file, rows, columns);
+  }
+
+  /**
+   * Loads solved positions saved by {@link #saveCache(Path)}, adding them to the ones remembered
+   * so far.
+   *
+   * @param file the file to read
+   * @throws IllegalArgumentException if the file is not a solver cache or was saved for another
+   *                                  board size
+   * @throws IOException              if the file cannot be read
+   */
+  public void loadCache(Path file) throws IllegalArgumentException, IOException {
+    cache.load(file, rows, columns);
+  }
+
+  /**
+   * Retrieves the number of solved positions remembered in the cache.
+   *
+   * @return the number of cached positions
+   */
+  public int getCacheSize() {
+    return cache.size();
+  }
+
+  /**
+   * Retrieves the number of positions searched since the solver was created.
+   *
+   * @return the number of nodes visited
+   */
+  public long getNodeCount() {
+    return nodes;
+  }
+
+  /**
+   * Finds the exact score of a position by narrowing the range of possible scores with
+   * null-window searches, trying first the windows closest to 0.
+   *
+   * @param current the discs of the player to move
+   * @param mask    the occupied cells
+   * @param moves   the number of discs on the board
+   * @return the score of the position for the player to move
+   */
+  private int solve(long current, long mask, int moves) {
+    if ((winningPositions(current, mask) & possible(mask)) != 0) {
+      return (cells + 1 - moves) / 2;
+    }
+    int min = -(cells - moves) / 2;
+    int max = (cells + 1 - moves) / 2;
+    while (min < max) {
+      int med = min + (max - min) / 2;
+      if (med <= 0 && min / 2 < med) {
+        med = min / 2;
+      } else if (med >= 0 && max / 2 > med) {
+        med = max / 2;
+      }
+      int result = negamax(current, mask, moves, med, med + 1);
+      if (result <= med) {
+        max = result;
+      } else {
+        min = result;
+      }
+    }
+    return min;
+  }
+
+  /**
+   * Finds a column that achieves the given exact score: the winning column if there is one,
+   * otherwise the first column, from the centre outwards, whose resulting position is worth the
+   * score, or the first playable column if every move loses at once.
+   *
+   * @param current the discs of the player to move
+   * @param mask    the occupied cells
+   * @param moves   the number of discs on the board
+   * @param score   the exact score of the position
+   * @return the column, starting at 0
+   */
+  private int bestMove(long current, long mask, int moves, int score) {
+    long possible = possible(mask);
+    long wins = winningPositions(current, mask) & possible;
+    long next = nonLosingMoves(current, mask);
+    int fallback = -1;
+    for (int column : order) {
+      long move = possible & columnMask(column);
+      if (move == 0) {
+        continue;
+      }
+      if ((wins & move) != 0) {
+        return column;
+      }
+      if (fallback < 0) {
+        fallback = column;
+      }
+      if ((next & move) != 0) {
+        long child = current ^ mask;
+        long childMask = mask | move;
+        if (moves + 1 == cells) {
+          return column;
+        }
+        if (negamax(child, childMask, moves + 1, -score, -score + 1) <= -score) {
+          return column;
+        }
+      }
+    }
+    return fallback;
+  }
+
+  /**
+   * Searches a position with alpha-beta pruning. The player to move must not be able to win
+   * at once. The result is exact if it lies strictly between alpha and beta, an upper bound if
+   * it is at most alpha and a lower bound if it is at least beta.
+   *
+   * @param current the discs of the player to move
+   * @param mask    the occupied cells
+   * @param moves   the number of discs on the board
+   * @param alpha   the score the player to move is already sure of
+   * @param beta    the score the opponent is already sure to hold the player to move below
+   * @return the score of the position for the player to move, within the bounds above
+   */
+  private int negamax(long current, long mask, int moves, int alpha, int beta) {
+    nodes++;
+    long next = nonLosingMoves(current, mask);
+    if (next == 0) {
+      return -(cells - moves) / 2;
+    }
+    if (moves >= cells - 2) {
+      return 0;
+    }
+    int min = -(cells - 2 - moves) / 2;
+    if (alpha < min) {
+      alpha = min;
+      if (alpha >= beta) {
+        return alpha;
+      }
+    }
+    int max = (cells - 1 - moves) / 2;
+    long key = key(moves % 2 == 0 ? current : current ^ mask, mask);
+    long mirrored = PositionKey.mirror(key, rows, columns);
+    if (mirrored < key) {
+      key = mirrored;
+    }
+    int cached = cache.get(key);
+    if (cached != SolverCache.MISS) {
+      return cached >> MOVE_BITS;
+    }
+    int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & tableMask;
+    if (tableKeys[slot] == key) {
+      max = Math.min(max, tableValues[slot]);
+    }
+    if (beta > max) {
+      beta = max;
+      if (alpha >= beta) {
+        return beta;
+      }
+    }
+
+    long[] candidates = sortedMoves[moves];
+    int[] scores = sortedScores[moves];
+    int count = 0;
+    for (int i = columns - 1; i >= 0; i--) {
+      long move = next & columnMask(order[i]);
+      if (move != 0) {
+        int threats = Long.bitCount(winningPositions(current | move, mask));
+        int j = count++;
+        while (j > 0 && scores[j - 1] > threats) {
+          candidates[j] = candidates[j - 1];
+          scores[j] = scores[j - 1];
+          j--;
+        }
+        candidates[j] = move;
+        scores[j] = threats;
+      }
+    }
+    for (int i = count - 1; i >= 0; i--) {
+      long move = candidates[i];
+      int score = -negamax(current ^ mask, mask | move, moves + 1, -beta, -alpha);
+      if (score >= beta) {
+        return score;
+      }
+      if (score > alpha) {
+        alpha = score;
+      }
+    }
+    tableKeys[slot] = key;
+    tableValues[slot] = (byte) alpha;
+    return alpha;
+  }
+
+  /**
+   * Computes the key of a position, as defined by {@link PositionKey}.
+   *
+   * @param first the discs of the player who moved first, RED in a normal game
+   * @param mask  the occupied cells
+   * @return the key of the position
+   */
+  private long key(long first, long mask) {
+    return first | (mask + bottomMask);
+  }
+
+  /**
+   * Computes the cells where a disc can be dropped right now.
+   *
+   * @param mask the occupied cells
+   * @return one bit per column that is not full, on its lowest empty cell
+   */
+  private long possible(long mask) {
+    return (mask + bottomMask) & boardMask;
+  }
+
+  /**
+   * Computes the moves of the player to move that do not let the opponent win at once: when
+   * the opponent threatens to win, the player must block, and no disc may be dropped right
+   * below a cell where the opponent would win.
+   *
+   * @param current the discs of the player to move
+   * @param mask    the occupied cells
+   * @return one bit per move, or 0 if every move loses at once
+   */
+  private long nonLosingMoves(long current, long mask) {
+    long possible = possible(mask);
+    long opponentWins = winningPositions(current ^ mask, mask);
+    long forced = possible & opponentWins;
+    if (forced != 0) {
+      if ((forced & (forced - 1)) != 0) {
+        return 0;
+      }
+      possible = forced;
+    }
+    return possible & ~(opponentWins >>> 1);
+  }
+
+  /**
+   * Computes the empty cells that would complete four in a line for a player.
+   *
+   * @param position the discs of the player
+   * @param mask     the occupied cells
+   * @return one bit per empty cell where the player would win
+   */
+  private long winningPositions(long position, long mask) {
+    long r = (position << 1) & (position << 2) & (position << 3);
+    for (int shift = height - 1; shift <= height + 1; shift++) {
+      long p = (position << shift) & (position << (2 * shift));
+      r |= p & (position << (3 * shift));
+      r |= p & (position >>> shift);
+      p = (position >>> shift) & (position >>> (2 * shift));
+      r |= p & (position << shift);
+      r |= p & (position >>> (3 * shift));
+    }
+    return r & (boardMask ^ mask);
+  }
+
+  /**
+   * Computes the cells of a column.
+   *
+   * @param column the column, starting at 0
+   * @return one bit per cell of the column
+   */
+  private long columnMask(int column) {
+    return ((1L << rows) - 1) << (column * height);
+  }
+}
@@ -0,0 +1,318 @@
+package connect;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A model for Connect Four meant for huge boards on which few discs are played. Nothing is
+ * allocated per cell: each column that has been played in keeps a compact stack of bits, one per
+ * disc, set for RED and clear for YELLOW, and the moves are kept on a history that grows with
+ * the game. Resetting the board walks the history instead of the board, so both memory and
+ * reset cost grow with the number of discs rather than with the area. Only the board text, when
+ * it is displayed, is as large as the board. It behaves the same way as
+ * {@link ConnectFourModelImpl}.
+ */
+public class ConnectFourSparseModel implements ConnectFourModel {
+  private static final int WORD_BITS = 64;
+
+  private final int rows;
+  private final int columns;
+  private final int winLength;
+  private final int[] heights;
+  private final long[][] colors;
+  private int[] history;
+  private int historySize;
+  private int historyEnd;
+  private long moveCounter;
+  private Player winner;
+  private BoardRenderer renderer;
+
+  /**
+   * Constructs a new ConnectFourSparseModel object with the default number of rows and columns.
+   */
+  public ConnectFourSparseModel() {
+    this(6, 7);
+  }
+
+  /**
+   * Constructs a new ConnectFourSparseModel object with the specified number of rows and
+   * columns.
+   *
+   * @param rows    the number of rows in the game board
+   * @param columns the number of columns in the game board
+   * @throws IllegalArgumentException if the board is smaller than 4x4
+   */
+  public ConnectFourSparseModel(int rows, int columns) throws IllegalArgumentException {
+    this(rows, columns, 4);
+  }
+
+  /**
+   * Constructs a new ConnectFourSparseModel object with the specified number of rows and
+   * columns, won by the specified number of discs in a line.
+   *
+   * @param rows      the number of rows in the game board
+   * @param columns   the number of columns in the game board
+   * @param winLength the number of discs in a line needed to win
+   * @throws IllegalArgumentException if the board is smaller than 4x4, or the win length is less
+   *                                  than 2 or longer than the board
+   */
+  public ConnectFourSparseModel(int rows, int columns, int winLength)
+      throws IllegalArgumentException {
+    if (rows < 4 || columns < 4) {
+      throw new IllegalArgumentException("Board size must be at least 4x4");
+    }
+    if (winLength < 2 || winLength > Math.max(rows, columns)) {
+      throw new IllegalArgumentException("Win length must be between 2 and the board size");
+    }
+    this.rows = rows;
+    this.columns = columns;
+    this.winLength = winLength;
+    this.heights = new int[columns];
+    this.colors = new long[columns][];
+    this.history = new int[16];
+    this.moveCounter = 0;
+  }
+
+  @Override
+  public void initializeBoard() {
+    for (int i = historySize - 1; i >= 0; i--) {
+      int column = history[i];
+      int row = --heights[column];
+      if (renderer != null) {
+        renderer.set(row, column, null);
+      }
+    }
+    winner = null;
+    historySize = 0;
+    historyEnd = 0;
+  }
+
+  @Override
+  public void makeMove(int column) throws IllegalArgumentException, IllegalStateException {
+    if (column < 1 || column > columns) {
+      throw new IllegalArgumentException("Column out of bounds");
+    }
+    if (heights[column - 1] == rows) {
+      throw new IllegalArgumentException("Column is full");
+    }
+    if (isGameOver()) {
+      throw new IllegalStateException("Game is over");
+    }
+    place(column - 1);
+    historyEnd = historySize;
+  }
+
+  @Override
+  public void undoMove() throws IllegalStateException {
+    if (historySize == 0) {
+      throw new IllegalStateException("No move to undo");
+    }
+    int column = history[--historySize];
+    int row = --heights[column];
+    moveCounter--;
+    winner = null;
+    if (renderer != null) {
+      renderer.set(row, column, null);
+    }
+  }
+
+  @Override
+  public void redoMove() throws IllegalStateException {
+    if (historySize == historyEnd) {
+      throw new IllegalStateException("No move to redo");
+    }
+    place(history[historySize]);
+  }
+
+  @Override
+  public int[] getMoveHistory() {
+    int[] moves = Arrays.copyOf(history, historySize);
+    for (int i = 0; i < moves.length; i++) {
+      moves[i]++;
+    }
+    return moves;
+  }
+
+  @Override
+  public Player getTurn() {
+    if (isGameOver()) {
+      return null;
+    }
+    return moveCounter % 2 == 0 ? Player.RED : Player.YELLOW;
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return winner != null || moveCounter >= (long) rows * columns;
+  }
+
+  @Override
+  public Player getWinner() {
+    return winner;
+  }
+
+  @Override
+  public void resetBoard() {
+    initializeBoard();
+    moveCounter = 0;
+  }
+
+  @Override
+  public int getColumnHeight(int column) throws IllegalArgumentException {
+    if (column < 1 || column > columns) {
+      throw new IllegalArgumentException("Column out of bounds");
+    }
+    return heights[column - 1];
+  }
+
+  @Override
+  public int getRows() {
+    return rows;
+  }
+
+  @Override
+  public int getColumns() {
+    return columns;
+  }
+
+  @Override
+  public int getWinLength() {
+    return winLength;
+  }
+
+  @Override
+  public Player cellAt(int row, int column) throws IllegalArgumentException {
+    if (row < 0 || row >= rows || column < 0 || column >= columns) {
+      throw new IllegalArgumentException("Cell out of bounds");
+    }
+    return cell(row, column);
+  }
+
+  @Override
+  public Player[][] getBoardState() {
+    Player[][] state = new Player[rows][columns];
+    for (int j = 0; j < columns; j++) {
+      for (int i = 0; i < heights[j]; i++) {
+        state[i][j] = cell(i, j);
+      }
+    }
+    return state;
+  }
+
+  @Override
+  public void renderBoard(Appendable out) throws IOException {
+    renderer().renderTo(out);
+  }
+
+  @Override
+  public String toString() {
+    return renderer().toString();
+  }
+
+  /**
+   * Retrieves the renderer of the board, creating it from the current discs the first time the
+   * board is displayed. From then on every move updates the renderer.
+   *
+   * @return the renderer
+   */
+  private BoardRenderer renderer() {
+    if (renderer == null) {
+      renderer = new BoardRenderer(rows, columns);
+      for (int j = 0; j < columns; j++) {
+        for (int i = 0; i < heights[j]; i++) {
+          renderer.set(i, j, cell(i, j));
+        }
+      }
+    }
+    return renderer;
+  }
+
+  /**
+   * Drops a disc for the player to move in the given column, pushes the move on the history and
+   * checks whether it wins. The move must be legal.
+   *
+   * @param column the column, starting at 0
+   */
+  private void place(int column) {
+    Player player = moveCounter % 2 == 0 ? Player.RED : Player.YELLOW;
+    int row = heights[column]++;
+    long[] bits = colors[column];
+    if (bits == null || row / WORD_BITS == bits.length) {
+      bits = bits == null ? new long[1] : Arrays.copyOf(bits, bits.length * 2);
+      colors[column] = bits;
+    }
+    if (player == Player.RED) {
+      bits[row / WORD_BITS] |= 1L << (row % WORD_BITS);
+    } else {
+      bits[row / WORD_BITS] &= ~(1L << (row % WORD_BITS));
+    }
+    moveCounter++;
+    if (historySize == history.length) {
+      history = Arrays.copyOf(history, historySize * 2);
+    }
+    history[historySize++] = column;
+    if (renderer != null) {
+      renderer.set(row, column, player);
+    }
+    if (isWinningMove(row, column, player)) {
+      winner = player;
+    }
+  }
+
+  /**
+   * Retrieves the disc at the given cell.
+   *
+   * @param row    the row of the cell, starting at 0 for the bottom row
+   * @param column the column of the cell, starting at 0 for the leftmost column
+   * @return the player owning the disc, or null if the cell is empty
+   */
+  private Player cell(int row, int column) {
+    if (row >= heights[column]) {
+      return null;
+    }
+    long bit = colors[column][row / WORD_BITS] & (1L << (row % WORD_BITS));
+    return bit != 0 ? Player.RED : Player.YELLOW;
+  }
+
+  /**
+   * Checks whether the disc at the given cell completes a winning line in any direction.
+   *
+   * @param row    the row of the disc that was just placed
+   * @param column the column of the disc that was just placed
+   * @param player the owner of the disc
+   * @return true if the disc is part of a line of consecutive discs of the same player as long as
+   *         the win length
+   */
+  private boolean isWinningMove(int row, int column, Player player) {
+    return countLine(row, column, player, 1, 0) >= winLength
+        || countLine(row, column, player, 0, 1) >= winLength
+        || countLine(row, column, player, 1, 1) >= winLength
+        || countLine(row, column, player, -1, 1) >= winLength;
+  }
+
+  /**
+   * Counts the consecutive discs of the given player on the line through the given cell,
+   * looking both ways along the given direction.
+   *
+   * @param row        the row of the cell
+   * @param column     the column of the cell
+   * @param player     the player whose discs are counted
+   * @param rowStep    the row increment of the direction
+   * @param columnStep the column increment of the direction
+   * @return the number of consecutive discs including the given cell, capped at the win length
+   */
+  private int countLine(int row, int column, Player player, int rowStep, int columnStep) {
+    int count = 1;
+    for (int sign = -1; sign <= 1; sign += 2) {
+      int r = row + sign * rowStep;
+      int c = column + sign * columnStep;
+      while (count < winLength && r >= 0 && r < rows && c >= 0 && c < columns
+          && cell(r, c) == player) {
+        count++;
+        r += sign * rowStep;
+        c += sign * columnStep;
+      }
+    }
+    return count;
+  }
+}
@@ -1,15 +1,23 @@
 package connect;
 
+import java.io.Flushable;
 import java.io.IOException;
 import java.util.Objects;
 
 /**
  * View component in the MVC architecture of a Connect Four game. This class defines the core
  * functionalities required to display the game state and messages to the user.
+ *
+ * <p>A buffered view collects everything it displays in one reusable buffer and only hands it to
+ * the output, in a single write, when {@link #flush()} is called. The controllers flush whenever
+ * they wait for input, so a whole turn reaches a console or a socket at once instead of in many
+ * small appends that may each lock or flush the stream.
  */
 public class ConnectFourView {
 
-  private final Appendable out;
+  private Appendable target;
+  private final StringBuilder buffer;
+  private Appendable out;
 
   /**
    * Constructor for the ConnectFourView class.
@@ -17,7 +25,71 @@ public class ConnectFourView {
    * @param out the output destination for game state and messages
    */
   public ConnectFourView(Appendable out) {
-    this.out = Objects.requireNonNull(out, "Appendable can't be null");
+    this(out, false);
+  }
+
+  /**
+   * Constructs a new ConnectFourView object that either writes to the output right away or
+   * buffers its output until it is flushed.
+   *
+   * @param out      the output destination for game state and messages
+   * @param buffered whether to hold the output back until {@link #flush()} is called
+   */
+  public ConnectFourView(Appendable out, boolean buffered) {
+    this.target = Objects.requireNonNull(out, "Appendable can't be null");
+    this.buffer = buffered ? new StringBuilder(256) : null;
+    this.out = buffered ? buffer : target;
+  }
+
+  /**
+   * Points this view at another output destination, so that it can be reused for another
+   * game. Output still held by a buffered view is dropped; call {@link #flush()} first to send
+   * it to the old destination.
+   *
+   * @param out the new output destination for game state and messages
+   */
+  public void setOutput(Appendable out) {
+    this.target = Objects.requireNonNull(out, "Appendable can't be null");
+    if (buffer != null) {
+      buffer.setLength(0);
+    } else {
+      this.out = target;
+    }
+  }
+
+  /**
+   * Checks whether this view holds its output back until it is flushed.
+   *
+   * @return true if the view is buffered
+   */
+  public boolean isBuffered() {
+    return buffer != null;
+  }
+
+  /**
+   * Retrieves where this view writes to: the buffer of a buffered view, or else the output
+   * destination itself.
+   *
+   * @return the output
+   */
+  Appendable output() {
+    return out;
+  }
+
+  /**
+   * Writes the buffered output, if any, to the output destination in a single write and
+   * flushes the destination if it can be flushed. The buffer is kept for the next turn.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public void flush() throws IOException {
+    if (buffer != null && buffer.length() > 0) {
+      target.append(buffer);
+      buffer.setLength(0);
+    }
+    if (target instanceof Flushable) {
+      ((Flushable) target).flush();
+    }
   }
 
   /**
@@ -30,6 +102,18 @@ public class ConnectFourView {
     out.append(gameState).append("\n");
   }
 
+  /**
+   * Displays the current state of the game board by letting the model write its board straight
+   * into the output, without building an intermediate string.
+   *
+   * @param m the model whose board to display
+   * @throws IOException if an I/O error occurs
+   */
+  public void displayGameState(ConnectFourModel m) throws IOException {
+    m.renderBoard(out);
+    out.append("\n");
+  }
+
   /**
    * Displays the player whose turn it is to make a move.
    *
@@ -37,13 +121,19 @@ public class ConnectFourView {
    * @throws IOException if an I/O error occurs
    */
   public void displayPlayerTurn(String player) throws IOException {
-    if ("R".equals(player)) {
-      player = "RED";
-    }
-    if ("Y".equals(player)) {
-      player = "YELLOW";
-    }
-    out.append("Player ").append(player).append(", make your move: ").append("\n");
+    out.append("Player ").append(fullName(player)).append(", make your move: ").append("\n");
+  }
+
+  /**
+   * Displays the move chosen by a computer player.
+   *
+   * @param player the computer player
+   * @param column the column it plays, starting at 1
+   * @throws IOException if an I/O error occurs
+   */
+  public void displayComputerMove(String player, int column) throws IOException {
+    out.append("Player ").append(fullName(player)).append(" plays column ")
+        .append(String.valueOf(column)).append("\n");
   }
 
   /**
@@ -76,6 +166,19 @@ public class ConnectFourView {
     out.append("Game quit! Ending game state:\n").append(gameState).append("\n");
   }
 
+  /**
+   * Displays the game state when the player quits, letting the model write its board straight
+   * into the output.
+   *
+   * @param m the model whose board to display
+   * @throws IOException if an I/O error occurs
+   */
+  public void displayGameQuit(ConnectFourModel m) throws IOException {
+    out.append("Game quit! Ending game state:\n");
+    m.renderBoard(out);
+    out.append("\n");
+  }
+
   /**
    * Displays the game over message, including the winner (if there is one).
    *
@@ -98,4 +201,20 @@ public class ConnectFourView {
   public void askPlayAgain() throws IOException {
     out.append("Do you want to play again? (yes/no)\n");
   }
-}
\ No newline at end of file
+
+  /**
+   * Expands the display name of a player into the full name of its colour.
+   *
+   * @param player the display name of the player
+   * @return the full name, or the given name if it is not a known display name
+   */
+  private String fullName(String player) {
+    if ("R".equals(player)) {
+      return "RED";
+    }
+    if ("Y".equals(player)) {
+      return "YELLOW";
+    }
+    return player;
+  }
+}
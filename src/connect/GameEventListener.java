@@ -0,0 +1,66 @@
+package connect;
+
+/**
+ * Receives what happens in the games played by a controller, for example to count how often
+ * players make invalid moves or quit. Controllers call the listener on the thread that plays the
+ * game.
+ */
+public interface GameEventListener {
+
+  /**
+   * A listener that ignores every event.
+   */
+  GameEventListener NONE = new GameEventListener() {
+    @Override
+    public void onMove(Player player, int column) {
+    }
+
+    @Override
+    public void onInvalidInput() {
+    }
+
+    @Override
+    public void onInvalidMove(int column) {
+    }
+
+    @Override
+    public void onQuit() {
+    }
+
+    @Override
+    public void onGameOver(Player winner) {
+    }
+  };
+
+  /**
+   * Called after a move was made.
+   *
+   * @param player the player who made the move
+   * @param column the column played, numbered from 1
+   */
+  void onMove(Player player, int column);
+
+  /**
+   * Called when the user entered something that is not a number.
+   */
+  void onInvalidInput();
+
+  /**
+   * Called when the model rejected a move.
+   *
+   * @param column the column that was rejected
+   */
+  void onInvalidMove(int column);
+
+  /**
+   * Called when the user quit a game before it was over.
+   */
+  void onQuit();
+
+  /**
+   * Called when a game is over.
+   *
+   * @param winner the winner, or null for a tie
+   */
+  void onGameOver(Player winner);
+}
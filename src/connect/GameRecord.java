@@ -0,0 +1,191 @@
+package connect;
+
+import java.util.Arrays;
+
+/**
+ * The record of one game of Connect Four: the size of the board, the number of discs in a row
+ * that wins, the columns played in order and how the game ended.
+ */
+public class GameRecord {
+  private final int rows;
+  private final int columns;
+  private final int winLength;
+  private final int[] moves;
+  private final boolean finished;
+  private final Player winner;
+
+  /**
+   * Constructs a new GameRecord object for a game of four in a row.
+   *
+   * @param rows     the number of rows of the board
+   * @param columns  the number of columns of the board
+   * @param moves    the columns played, numbered from 1 like in
+   *                 {@link ConnectFourModel#makeMove(int)}
+   * @param finished true if the game was played to the end, false if it was abandoned
+   * @param winner   the winner, or null for a tie or an unfinished game
+   * @throws IllegalArgumentException if a move is outside of the board, or an unfinished game
+   *                                  has a winner
+   */
+  public GameRecord(int rows, int columns, int[] moves, boolean finished, Player winner)
+      throws IllegalArgumentException {
+    this(rows, columns, 4, moves, finished, winner);
+  }
+
+  /**
+   * Constructs a new GameRecord object.
+   *
+   * @param rows      the number of rows of the board
+   * @param columns   the number of columns of the board
+   * @param winLength the number of discs in a row that wins
+   * @param moves     the columns played, numbered from 1 like in
+   *                  {@link ConnectFourModel#makeMove(int)}
+   * @param finished  true if the game was played to the end, false if it was abandoned
+   * @param winner    the winner, or null for a tie or an unfinished game
+   * @throws IllegalArgumentException if the win length is less than 2, a move is outside of the
+   *                                  board, or an unfinished game has a winner
+   */
+  public GameRecord(int rows, int columns, int winLength, int[] moves, boolean finished,
+      Player winner) throws IllegalArgumentException {
+    if (winLength < 2) {
+      throw new IllegalArgumentException("Win length must be at least 2");
+    }
+    for (int move : moves) {
+      if (move < 1 || move > columns) {
+        throw new IllegalArgumentException("Column out of bounds");
+      }
+    }
+    if (!finished && winner != null) {
+      throw new IllegalArgumentException("An unfinished game has no winner");
+    }
+    this.rows = rows;
+    this.columns = columns;
+    this.winLength = winLength;
+    this.moves = moves.clone();
+    this.finished = finished;
+    this.winner = winner;
+  }
+
+  /**
+   * Retrieves the number of rows of the board.
+   *
+   * @return the number of rows
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Retrieves the number of columns of the board.
+   *
+   * @return the number of columns
+   */
+  public int getColumns() {
+    return columns;
+  }
+
+  /**
+   * Retrieves the number of discs in a row that won the game.
+   *
+   * @return the win length
+   */
+  public int getWinLength() {
+    return winLength;
+  }
+
+  /**
+   * Retrieves the columns played, in order.
+   *
+   * @return a copy of the moves, numbered from 1
+   */
+  public int[] getMoves() {
+    return moves.clone();
+  }
+
+  /**
+   * Retrieves the number of moves made in the game.
+   *
+   * @return the number of moves
+   */
+  public int getMoveCount() {
+    return moves.length;
+  }
+
+  /**
+   * Retrieves a single move.
+   *
+   * @param index the index of the move, starting at 0 for the first move
+   * @return the column played, numbered from 1
+   */
+  public int getMove(int index) {
+    return moves[index];
+  }
+
+  /**
+   * Checks whether the game was played to the end.
+   *
+   * @return true if the game ended with a win or a tie, false if it was abandoned
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * Retrieves the winner of the game.
+   *
+   * @return the winner, or null for a tie or an unfinished game
+   */
+  public Player getWinner() {
+    return winner;
+  }
+
+  /**
+   * Plays the recorded game on a model, starting from an empty board.
+   *
+   * @param m a model with the same board size and win length as the record
+   * @throws IllegalArgumentException if the model is null or has another board size or win
+   *                                  length, or a recorded move is rejected by the model
+   * @throws IllegalStateException    if a recorded move comes after the model's game is over,
+   *                                  which only happens for a record made up by hand
+   */
+  public void replay(ConnectFourModel m) throws IllegalArgumentException, IllegalStateException {
+    if (m == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    if (m.getRows() != rows || m.getColumns() != columns) {
+      throw new IllegalArgumentException("Board size does not match the record");
+    }
+    if (m.getWinLength() != winLength) {
+      throw new IllegalArgumentException("Win length does not match the record");
+    }
+    m.resetBoard();
+    for (int move : moves) {
+      m.makeMove(move);
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof GameRecord)) {
+      return false;
+    }
+    GameRecord other = (GameRecord) o;
+    return rows == other.rows && columns == other.columns && winLength == other.winLength
+        && finished == other.finished && winner == other.winner
+        && Arrays.equals(moves, other.moves);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(moves) + rows * 1009 + columns * 31 + winLength;
+  }
+
+  @Override
+  public String toString() {
+    return rows + "x" + columns + (winLength == 4 ? "" : " k" + winLength) + " "
+        + Arrays.toString(moves) + " "
+        + (!finished ? "unfinished" : winner == null ? "tie" : winner.getDisplayName());
+  }
+}
@@ -0,0 +1,170 @@
+package connect;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The binary layout of game records in segment files.
+ *
+ * <p>A segment starts with a 16-byte header: the magic number {@code C4RS}, the format version
+ * and the offset just past the last complete record, which is updated after every record so
+ * that a reader never sees a half-written one. Records follow one after the other. Each record
+ * is the number of rows, the number of columns, the number of discs in a row that wins and the
+ * number of moves as variable-length integers (7 bits per byte), one byte for the result, and
+ * then the moves packed into {@code max(3, ceil(log2(columns)))} bits each, so that a move on the
+ * standard board takes 3 bits. Segments of version 1 have no win length; their games were played
+ * to four in a row.
+ */
+final class GameRecordFormat {
+  static final int MAGIC = 0x43345253;
+  static final int VERSION = 2;
+  static final int VERSION_WITHOUT_WIN_LENGTH = 1;
+  static final int HEADER_SIZE = 16;
+  static final int END_OFFSET = 8;
+  static final String SUFFIX = ".c4r";
+
+  private static final int UNFINISHED = 0;
+  private static final int TIE = 1;
+  private static final int RED_WINS = 2;
+  private static final int YELLOW_WINS = 3;
+
+  /**
+   * Prevents instantiation; this class only has static methods.
+   */
+  private GameRecordFormat() {
+  }
+
+  /**
+   * Computes the number of bits used by one move on a board with the given width.
+   *
+   * @param columns the number of columns
+   * @return the number of bits per move
+   */
+  static int bitsPerMove(int columns) {
+    return Math.max(3, 32 - Integer.numberOfLeadingZeros(columns - 1));
+  }
+
+  /**
+   * Computes the number of bytes a record takes.
+   *
+   * @param record the record
+   * @return the encoded size
+   */
+  static int size(GameRecord record) {
+    long moveBits = (long) record.getMoveCount() * bitsPerMove(record.getColumns());
+    return varIntSize(record.getRows()) + varIntSize(record.getColumns())
+        + varIntSize(record.getWinLength()) + varIntSize(record.getMoveCount()) + 1
+        + (int) ((moveBits + 7) / 8);
+  }
+
+  /**
+   * Writes a record at the position of the buffer and advances the position past it.
+   *
+   * @param record the record
+   * @param out    the buffer, with at least {@link #size(GameRecord)} bytes remaining
+   */
+  static void write(GameRecord record, ByteBuffer out) {
+    writeVarInt(out, record.getRows());
+    writeVarInt(out, record.getColumns());
+    writeVarInt(out, record.getWinLength());
+    writeVarInt(out, record.getMoveCount());
+    int result = UNFINISHED;
+    if (record.isFinished()) {
+      result = record.getWinner() == null ? TIE
+          : record.getWinner() == Player.RED ? RED_WINS : YELLOW_WINS;
+    }
+    out.put((byte) result);
+    int bits = bitsPerMove(record.getColumns());
+    long pending = 0;
+    int pendingBits = 0;
+    for (int i = 0; i < record.getMoveCount(); i++) {
+      pending |= (long) (record.getMove(i) - 1) << pendingBits;
+      pendingBits += bits;
+      while (pendingBits >= 8) {
+        out.put((byte) pending);
+        pending >>>= 8;
+        pendingBits -= 8;
+      }
+    }
+    if (pendingBits > 0) {
+      out.put((byte) pending);
+    }
+  }
+
+  /**
+   * Reads a record at the position of the buffer and advances the position past it.
+   *
+   * @param in      the buffer
+   * @param version the format version of the segment the record is in
+   * @return the record
+   */
+  static GameRecord read(ByteBuffer in, int version) {
+    int rows = readVarInt(in);
+    int columns = readVarInt(in);
+    int winLength = version == VERSION_WITHOUT_WIN_LENGTH ? 4 : readVarInt(in);
+    int[] moves = new int[readVarInt(in)];
+    int result = in.get();
+    int bits = bitsPerMove(columns);
+    long mask = (1L << bits) - 1;
+    long pending = 0;
+    int pendingBits = 0;
+    for (int i = 0; i < moves.length; i++) {
+      while (pendingBits < bits) {
+        pending |= (long) (in.get() & 0xFF) << pendingBits;
+        pendingBits += 8;
+      }
+      moves[i] = (int) (pending & mask) + 1;
+      pending >>>= bits;
+      pendingBits -= bits;
+    }
+    Player winner = result == RED_WINS ? Player.RED : result == YELLOW_WINS ? Player.YELLOW
+        : null;
+    return new GameRecord(rows, columns, winLength, moves, result != UNFINISHED, winner);
+  }
+
+  /**
+   * Computes the number of bytes of a variable-length integer.
+   *
+   * @param value the non-negative value
+   * @return the encoded size
+   */
+  private static int varIntSize(int value) {
+    int size = 1;
+    while ((value >>>= 7) != 0) {
+      size++;
+    }
+    return size;
+  }
+
+  /**
+   * Writes a non-negative variable-length integer, 7 bits per byte with the high bit set on
+   * every byte but the last.
+   *
+   * @param out   the buffer
+   * @param value the value
+   */
+  private static void writeVarInt(ByteBuffer out, int value) {
+    while ((value & ~0x7F) != 0) {
+      out.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.put((byte) value);
+  }
+
+  /**
+   * Reads a variable-length integer written by {@link #writeVarInt(ByteBuffer, int)}.
+   *
+   * @param in the buffer
+   * @return the value
+   */
+  private static int readVarInt(ByteBuffer in) {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = in.get();
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+}
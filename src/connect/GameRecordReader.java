@@ -0,0 +1,127 @@
+package connect;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Streams the game records written by a {@link GameRecordWriter} back, one record at a time and
+ * in the order they were written. Each segment file is memory-mapped and decoded as the records
+ * are requested, so a directory of any size can be read without loading it.
+ */
+public class GameRecordReader implements Iterator<GameRecord>, AutoCloseable {
+  private final List<Path> segments;
+  private int nextSegment;
+  private MappedByteBuffer segment;
+  private int version;
+  private long end;
+
+  /**
+   * Constructs a new GameRecordReader object over every segment in a directory.
+   *
+   * @param directory the directory of the segments
+   * @throws IOException if the directory cannot be read
+   */
+  public GameRecordReader(Path directory) throws IOException {
+    this.segments = segments(directory);
+    this.nextSegment = 0;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (segment == null || segment.position() >= end) {
+      if (nextSegment >= segments.size()) {
+        return false;
+      }
+      open(segments.get(nextSegment++));
+    }
+    return true;
+  }
+
+  @Override
+  public GameRecord next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException("No more records");
+    }
+    return GameRecordFormat.read(segment, version);
+  }
+
+  /**
+   * Replays every remaining record on a model and passes the model to the given action after
+   * each game, so that games can be analysed without keeping them.
+   *
+   * @param m      the model to replay the games on
+   * @param action what to do with the model after each game
+   * @throws IllegalArgumentException if a record does not fit the model
+   * @throws IllegalStateException    if a recorded move comes after the model's game is over
+   */
+  public void replayAll(ConnectFourModel m, Consumer<ConnectFourModel> action)
+      throws IllegalArgumentException, IllegalStateException {
+    while (hasNext()) {
+      next().replay(m);
+      action.accept(m);
+    }
+  }
+
+  @Override
+  public void close() {
+    segment = null;
+    nextSegment = segments.size();
+  }
+
+  /**
+   * Maps a segment and reads its header.
+   *
+   * @param file the segment file
+   * @throws IllegalStateException if the file cannot be read or is not a segment
+   */
+  private void open(Path file) throws IllegalStateException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot read " + file, e);
+    }
+    if (segment.limit() < GameRecordFormat.HEADER_SIZE
+        || segment.getInt() != GameRecordFormat.MAGIC) {
+      throw new IllegalStateException("Not a game record segment: " + file);
+    }
+    version = segment.getInt();
+    if (version != GameRecordFormat.VERSION
+        && version != GameRecordFormat.VERSION_WITHOUT_WIN_LENGTH) {
+      throw new IllegalStateException("Unknown game record version " + version + ": " + file);
+    }
+    end = segment.getLong();
+  }
+
+  /**
+   * Lists the segment files of a directory in the order they were written.
+   *
+   * @param directory the directory
+   * @return the segment files, or an empty list if the directory does not exist
+   * @throws IOException if the directory cannot be read
+   */
+  static List<Path> segments(Path directory) throws IOException {
+    List<Path> files = new ArrayList<>();
+    if (!Files.isDirectory(directory)) {
+      return files;
+    }
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+        "games-*" + GameRecordFormat.SUFFIX)) {
+      for (Path file : stream) {
+        files.add(file);
+      }
+    }
+    Collections.sort(files);
+    return files;
+  }
+}
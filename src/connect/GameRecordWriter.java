@@ -0,0 +1,138 @@
+package connect;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends game records to memory-mapped segment files in a directory. A new segment is started
+ * when the current one is full; segments are named {@code games-000000.c4r},
+ * {@code games-000001.c4r} and so on, and a writer always starts a new segment numbered after
+ * the highest one already in the directory, even if some before it were deleted or archived.
+ * See {@link GameRecordFormat} for the layout. Appending is safe from several threads.
+ */
+public class GameRecordWriter implements AutoCloseable {
+  private final Path directory;
+  private final int segmentSize;
+  private int nextSegment;
+  private FileChannel channel;
+  private MappedByteBuffer segment;
+
+  /**
+   * Constructs a new GameRecordWriter object that writes segments of 64 MiB.
+   *
+   * @param directory the directory of the segments, which is created if needed
+   * @throws IOException if the directory cannot be read or created
+   */
+  public GameRecordWriter(Path directory) throws IOException {
+    this(directory, 64 << 20);
+  }
+
+  /**
+   * Constructs a new GameRecordWriter object.
+   *
+   * @param directory   the directory of the segments, which is created if needed
+   * @param segmentSize the size of each segment file, in bytes
+   * @throws IllegalArgumentException if the segment size is too small for the header
+   * @throws IOException              if the directory cannot be read or created
+   */
+  public GameRecordWriter(Path directory, int segmentSize)
+      throws IllegalArgumentException, IOException {
+    if (segmentSize <= GameRecordFormat.HEADER_SIZE) {
+      throw new IllegalArgumentException("Segment size is too small");
+    }
+    this.directory = Files.createDirectories(directory);
+    this.segmentSize = segmentSize;
+    this.nextSegment = nextIndex(GameRecordReader.segments(directory));
+  }
+
+  /**
+   * Appends a record.
+   *
+   * @param record the record
+   * @throws IllegalArgumentException if the record is larger than a segment
+   * @throws IOException              if a new segment cannot be created
+   */
+  public synchronized void append(GameRecord record) throws IllegalArgumentException,
+      IOException {
+    int size = GameRecordFormat.size(record);
+    if (size > segmentSize - GameRecordFormat.HEADER_SIZE) {
+      throw new IllegalArgumentException("Record is larger than a segment");
+    }
+    if (segment == null || segment.remaining() < size) {
+      nextSegment();
+    }
+    GameRecordFormat.write(record, segment);
+    segment.putLong(GameRecordFormat.END_OFFSET, segment.position());
+  }
+
+  /**
+   * Forces the records written so far to disk.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  public synchronized void flush() throws IOException {
+    if (segment != null) {
+      segment.force();
+    }
+  }
+
+  /**
+   * Writes the records to disk and closes the current segment.
+   *
+   * @throws IOException if an I/O error occurs
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    flush();
+    segment = null;
+    if (channel != null) {
+      channel.close();
+      channel = null;
+    }
+  }
+
+  /**
+   * Finds the number of the segment to write after the given ones. Files whose names do not end
+   * in a number are ignored.
+   *
+   * @param segments the segment files in the directory
+   * @return one more than the highest segment number, or 0 if there is none
+   */
+  private static int nextIndex(List<Path> segments) {
+    int next = 0;
+    String prefix = "games-";
+    for (Path file : segments) {
+      String name = file.getFileName().toString();
+      String number = name.substring(prefix.length(),
+          name.length() - GameRecordFormat.SUFFIX.length());
+      try {
+        next = Math.max(next, Integer.parseInt(number) + 1);
+      } catch (NumberFormatException e) {
+        // not a segment this writer would have named
+      }
+    }
+    return next;
+  }
+
+  /**
+   * Closes the current segment and maps a new one.
+   *
+   * @throws IOException if the segment cannot be created
+   */
+  private void nextSegment() throws IOException {
+    close();
+    Path file = directory.resolve(String.format("games-%06d%s", nextSegment++,
+        GameRecordFormat.SUFFIX));
+    channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    segment.putInt(GameRecordFormat.MAGIC);
+    segment.putInt(GameRecordFormat.VERSION);
+    segment.putLong(GameRecordFormat.HEADER_SIZE);
+  }
+}
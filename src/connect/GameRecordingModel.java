@@ -0,0 +1,181 @@
+package connect;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * A model that records the games played on another model. Every move accepted by the wrapped
+ * model is remembered, and when a game ends its record, with the result from
+ * {@link ConnectFourModel#getWinner()}, is appended to a {@link GameRecordWriter}. A game that
+ * is reset before it ends is recorded as unfinished. Moves taken back with
+ * {@link #undoMove()} are left out of the record.
+ *
+ * <p>Records are never taken back. Taking back the last move of a recorded game puts the game in
+ * progress again: if it is then played to a different end, that end is recorded as well, and if
+ * it is reset or finished before that, it is recorded as unfinished with the moves that stand.
+ * Making the taken-back move again with {@link #redoMove()} returns to the end already recorded
+ * and records nothing.
+ */
+public class GameRecordingModel implements ConnectFourModel {
+  private final ConnectFourModel delegate;
+  private final GameRecordWriter writer;
+  private int[] moves;
+  private int moveCount;
+  private int recordedMoves;
+
+  /**
+   * Constructs a new GameRecordingModel object.
+   *
+   * @param delegate the model the games are played on
+   * @param writer   where the records are appended
+   * @throws IllegalArgumentException if the model or the writer is null
+   */
+  public GameRecordingModel(ConnectFourModel delegate, GameRecordWriter writer)
+      throws IllegalArgumentException {
+    if (delegate == null || writer == null) {
+      throw new IllegalArgumentException("Model and writer cannot be null");
+    }
+    this.delegate = delegate;
+    this.writer = writer;
+    this.moves = new int[16];
+    this.moveCount = 0;
+    this.recordedMoves = -1;
+  }
+
+  /**
+   * Records the game in progress as unfinished, for example when the player quits. Nothing is
+   * recorded if no move was made or the game was already recorded as it stands.
+   *
+   * @throws UncheckedIOException if the record cannot be written
+   */
+  public void finishGame() throws UncheckedIOException {
+    if (moveCount > 0 && recordedMoves != moveCount) {
+      record(false);
+    }
+  }
+
+  @Override
+  public void initializeBoard() {
+    finishGame();
+    delegate.initializeBoard();
+    moveCount = 0;
+    recordedMoves = -1;
+  }
+
+  @Override
+  public void makeMove(int column) throws IllegalArgumentException, IllegalStateException {
+    delegate.makeMove(column);
+    if (recordedMoves > moveCount) {
+      recordedMoves = -1;
+    }
+    if (moveCount == moves.length) {
+      moves = Arrays.copyOf(moves, moves.length * 2);
+    }
+    moves[moveCount++] = column;
+    if (delegate.isGameOver()) {
+      record(true);
+    }
+  }
+
+  @Override
+  public void undoMove() throws IllegalStateException {
+    delegate.undoMove();
+    moveCount--;
+  }
+
+  @Override
+  public void redoMove() throws IllegalStateException {
+    delegate.redoMove();
+    moveCount++;
+    if (delegate.isGameOver() && recordedMoves != moveCount) {
+      record(true);
+    }
+  }
+
+  @Override
+  public int[] getMoveHistory() {
+    return delegate.getMoveHistory();
+  }
+
+  @Override
+  public Player getTurn() {
+    return delegate.getTurn();
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return delegate.isGameOver();
+  }
+
+  @Override
+  public Player getWinner() {
+    return delegate.getWinner();
+  }
+
+  @Override
+  public void resetBoard() {
+    finishGame();
+    delegate.resetBoard();
+    moveCount = 0;
+    recordedMoves = -1;
+  }
+
+  @Override
+  public int getColumnHeight(int column) throws IllegalArgumentException {
+    return delegate.getColumnHeight(column);
+  }
+
+  @Override
+  public int getRows() {
+    return delegate.getRows();
+  }
+
+  @Override
+  public int getColumns() {
+    return delegate.getColumns();
+  }
+
+  @Override
+  public int getWinLength() {
+    return delegate.getWinLength();
+  }
+
+  @Override
+  public Player cellAt(int row, int column) throws IllegalArgumentException {
+    return delegate.cellAt(row, column);
+  }
+
+  @Override
+  public Player[][] getBoardState() {
+    return delegate.getBoardState();
+  }
+
+  @Override
+  public void renderBoard(Appendable out) throws IOException {
+    delegate.renderBoard(out);
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+
+  /**
+   * Appends the record of the current game to the writer.
+   *
+   * @param finished true if the game was played to the end
+   * @throws UncheckedIOException if the record cannot be written
+   */
+  private void record(boolean finished) throws UncheckedIOException {
+    GameRecord record = new GameRecord(delegate.getRows(), delegate.getColumns(),
+        delegate.getWinLength(), Arrays.copyOf(moves, moveCount), finished,
+        finished ? delegate.getWinner() : null);
+    try {
+      writer.append(record);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    recordedMoves = moveCount;
+  }
+}
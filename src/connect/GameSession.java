@@ -0,0 +1,116 @@
+package connect;
+
+/**
+ * A game leased from a {@link GameSessionPool}: a model of a fixed size together with the view
+ * and the controller that play on it. A session is bound to one client's input and output while
+ * it is leased and goes back to the pool, with its board reset, when
+ * {@link GameSessionPool#release(GameSession)} is called.
+ */
+public final class GameSession {
+  private final int rows;
+  private final int columns;
+  private final ConnectFourModel model;
+  private final ConnectFourView view;
+  private final ConnectFourConsoleController controller;
+  private boolean leased;
+
+  /**
+   * Constructs a new GameSession object.
+   *
+   * @param model      the model, which decides the size of the session
+   * @param view       the view
+   * @param controller the controller, which displays on the view
+   */
+  GameSession(ConnectFourModel model, ConnectFourView view,
+      ConnectFourConsoleController controller) {
+    this.rows = model.getRows();
+    this.columns = model.getColumns();
+    this.model = model;
+    this.view = view;
+    this.controller = controller;
+  }
+
+  /**
+   * Plays games on this session's model until the client quits, declines to play again or the
+   * input ends.
+   */
+  public void play() {
+    controller.playGame(model);
+  }
+
+  /**
+   * Binds this session to a client's input and output, dropping any listener a previous client
+   * set on the controller.
+   *
+   * @param in  the input source for user moves
+   * @param out the output destination for game state and messages
+   */
+  void bind(Readable in, Appendable out) {
+    controller.setInput(in);
+    controller.setListener(GameEventListener.NONE);
+    view.setOutput(out);
+  }
+
+  /**
+   * Retrieves the model of this session.
+   *
+   * @return the model
+   */
+  public ConnectFourModel getModel() {
+    return model;
+  }
+
+  /**
+   * Retrieves the view of this session.
+   *
+   * @return the view
+   */
+  public ConnectFourView getView() {
+    return view;
+  }
+
+  /**
+   * Retrieves the controller of this session, for example to set a listener on it.
+   *
+   * @return the controller
+   */
+  public ConnectFourConsoleController getController() {
+    return controller;
+  }
+
+  /**
+   * Retrieves the number of rows of this session's board.
+   *
+   * @return the number of rows
+   */
+  int getRows() {
+    return rows;
+  }
+
+  /**
+   * Retrieves the number of columns of this session's board.
+   *
+   * @return the number of columns
+   */
+  int getColumns() {
+    return columns;
+  }
+
+  /**
+   * Checks whether this session is leased out.
+   *
+   * @return true if it is leased
+   */
+  boolean isLeased() {
+    return leased;
+  }
+
+  /**
+   * Marks this session as leased out or back in the pool.
+   *
+   * @param leased true if it is leased
+   */
+  void setLeased(boolean leased) {
+    this.leased = leased;
+  }
+}
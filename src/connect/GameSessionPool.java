@@ -0,0 +1,246 @@
+package connect;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps finished games around so that new games reuse them instead of allocating a model, a view
+ * and a controller each time. Sessions are kept per board size; {@link #lease} hands out an idle
+ * session of the wanted size, or creates one if there is none, and binds it to the client's
+ * input and output, and {@link #release} resets its board and puts it back. Up to a given number
+ * of idle sessions are kept per size; any more are left to the garbage collector.
+ *
+ * <p>The pool counts how many leases were served from idle sessions and how many sessions it
+ * had at most, leased and idle together, which is the size to plan for. All methods are
+ * thread-safe. The sizes are found by a linear search, since a server plays only a handful of
+ * sizes, so that leasing a session does not box a key.
+ */
+public class GameSessionPool {
+  private final BiFunction<Integer, Integer, ConnectFourModel> modelFactory;
+  private final int maxIdle;
+  private final List<Shelf> shelves;
+  private long hits;
+  private long misses;
+  private int size;
+  private int peakSize;
+
+  /**
+   * Constructs a new GameSessionPool object playing on {@link ConnectFourModelImpl} models and
+   * keeping up to 64 idle sessions per size.
+   */
+  public GameSessionPool() {
+    this(ConnectFourModelImpl::new, 64);
+  }
+
+  /**
+   * Constructs a new GameSessionPool object.
+   *
+   * @param modelFactory creates a model with the given number of rows and columns
+   * @param maxIdle      the number of idle sessions kept per size
+   * @throws IllegalArgumentException if the factory is null or the number is negative
+   */
+  public GameSessionPool(BiFunction<Integer, Integer, ConnectFourModel> modelFactory,
+      int maxIdle) throws IllegalArgumentException {
+    if (modelFactory == null) {
+      throw new IllegalArgumentException("Model factory cannot be null");
+    }
+    if (maxIdle < 0) {
+      throw new IllegalArgumentException("Idle sessions cannot be negative");
+    }
+    this.modelFactory = modelFactory;
+    this.maxIdle = maxIdle;
+    this.shelves = new ArrayList<>();
+  }
+
+  /**
+   * Leases a session with a board of the given size, bound to the given input and output.
+   *
+   * @param rows    the number of rows
+   * @param columns the number of columns
+   * @param in      the input source for user moves
+   * @param out     the output destination for game state and messages
+   * @return the session, with an empty board
+   * @throws IllegalArgumentException if the input or output is null, or the model factory
+   *                                  rejects the size
+   */
+  public GameSession lease(int rows, int columns, Readable in, Appendable out)
+      throws IllegalArgumentException {
+    if (in == null || out == null) {
+      throw new IllegalArgumentException("Input and output cannot be null");
+    }
+    GameSession session;
+    synchronized (this) {
+      session = shelf(rows, columns).idle.poll();
+      if (session != null) {
+        session.setLeased(true);
+        hits++;
+      } else {
+        misses++;
+      }
+    }
+    if (session == null) {
+      session = create(rows, columns, in, out);
+      synchronized (this) {
+        session.setLeased(true);
+        size++;
+        peakSize = Math.max(peakSize, size);
+      }
+    }
+    session.bind(in, out);
+    return session;
+  }
+
+  /**
+   * Hands a session back. Its buffered output is flushed and its board reset; it is kept for
+   * the next lease of the same size if there is room.
+   *
+   * @param session a session leased from this pool
+   * @throws IllegalArgumentException if the session is null
+   * @throws IllegalStateException    if the session is not leased
+   */
+  public void release(GameSession session) throws IllegalArgumentException,
+      IllegalStateException {
+    if (session == null) {
+      throw new IllegalArgumentException("Session cannot be null");
+    }
+    synchronized (this) {
+      if (!session.isLeased()) {
+        throw new IllegalStateException("Session is not leased");
+      }
+      session.setLeased(false);
+    }
+    try {
+      session.getView().flush();
+    } catch (IOException e) {
+      // the client is gone; the session is reused either way
+    }
+    session.getModel().resetBoard();
+    synchronized (this) {
+      ArrayDeque<GameSession> idle = shelf(session.getRows(), session.getColumns()).idle;
+      if (idle.size() < maxIdle) {
+        idle.push(session);
+      } else {
+        size--;
+      }
+    }
+  }
+
+  /**
+   * Retrieves the number of leases served by an idle session.
+   *
+   * @return the number of hits
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Retrieves the number of leases that had to create a session.
+   *
+   * @return the number of misses
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * Retrieves the share of leases served by an idle session.
+   *
+   * @return the hit rate between 0 and 1, or 0 if nothing was leased yet
+   */
+  public synchronized double getHitRate() {
+    long leases = hits + misses;
+    return leases == 0 ? 0 : (double) hits / leases;
+  }
+
+  /**
+   * Retrieves the number of sessions the pool has, leased and idle.
+   *
+   * @return the number of sessions
+   */
+  public synchronized int getSize() {
+    return size;
+  }
+
+  /**
+   * Retrieves the largest number of sessions the pool had at once, leased and idle.
+   *
+   * @return the peak size
+   */
+  public synchronized int getPeakSize() {
+    return peakSize;
+  }
+
+  /**
+   * Retrieves the number of idle sessions of all sizes.
+   *
+   * @return the number of idle sessions
+   */
+  public synchronized int getIdleCount() {
+    int idle = 0;
+    for (Shelf shelf : shelves) {
+      idle += shelf.idle.size();
+    }
+    return idle;
+  }
+
+  /**
+   * Creates a new session.
+   *
+   * @param rows    the number of rows
+   * @param columns the number of columns
+   * @param in      the input source for user moves
+   * @param out     the output destination for game state and messages
+   * @return the session
+   */
+  private GameSession create(int rows, int columns, Readable in, Appendable out) {
+    ConnectFourModel model = modelFactory.apply(rows, columns);
+    ConnectFourView view = new ConnectFourView(out, true);
+    return new GameSession(model, view, new ConnectFourConsoleController(in, view));
+  }
+
+  /**
+   * Finds the idle sessions of the given size, adding an empty shelf the first time the size is
+   * asked for. Must be called holding the lock.
+   *
+   * @param rows    the number of rows
+   * @param columns the number of columns
+   * @return the shelf
+   */
+  private Shelf shelf(int rows, int columns) {
+    for (int i = 0; i < shelves.size(); i++) {
+      Shelf shelf = shelves.get(i);
+      if (shelf.rows == rows && shelf.columns == columns) {
+        return shelf;
+      }
+    }
+    Shelf shelf = new Shelf(rows, columns, Math.min(maxIdle, 16));
+    shelves.add(shelf);
+    return shelf;
+  }
+
+  /**
+   * The idle sessions of one board size.
+   */
+  private static final class Shelf {
+    private final int rows;
+    private final int columns;
+    private final ArrayDeque<GameSession> idle;
+
+    /**
+     * Constructs a new Shelf object.
+     *
+     * @param rows     the number of rows
+     * @param columns  the number of columns
+     * @param capacity the initial capacity
+     */
+    private Shelf(int rows, int columns, int capacity) {
+      this.rows = rows;
+      this.columns = columns;
+      this.idle = new ArrayDeque<>(capacity);
+    }
+  }
+}
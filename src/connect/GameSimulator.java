@@ -0,0 +1,119 @@
+package connect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Plays many games of Connect Four between two computer players without any view or
+ * controller, for balance testing and tuning. Games are shared out between worker threads; each
+ * worker gets its own model and its own players from the given factories and reuses them for
+ * all of its games, resetting the model between games.
+ */
+public class GameSimulator {
+  private final Supplier<ConnectFourModel> modelFactory;
+  private final Supplier<MoveSearcher> redFactory;
+  private final Supplier<MoveSearcher> yellowFactory;
+  private final int threads;
+
+  /**
+   * Constructs a new GameSimulator object.
+   *
+   * @param modelFactory  creates the model each worker plays on
+   * @param redFactory    creates the player each worker uses for RED
+   * @param yellowFactory creates the player each worker uses for YELLOW
+   * @param threads       the number of worker threads
+   * @throws IllegalArgumentException if a factory is null or the number of threads is not
+   *                                  positive
+   */
+  public GameSimulator(Supplier<ConnectFourModel> modelFactory,
+      Supplier<MoveSearcher> redFactory, Supplier<MoveSearcher> yellowFactory, int threads)
+      throws IllegalArgumentException {
+    if (modelFactory == null || redFactory == null || yellowFactory == null) {
+      throw new IllegalArgumentException("Factories cannot be null");
+    }
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Threads must be positive");
+    }
+    this.modelFactory = modelFactory;
+    this.redFactory = redFactory;
+    this.yellowFactory = yellowFactory;
+    this.threads = threads;
+  }
+
+  /**
+   * Plays the given number of games and reports the results.
+   *
+   * @param games the number of games to play
+   * @return the results of the batch
+   * @throws IllegalArgumentException if the number of games is negative
+   * @throws IllegalStateException    if a worker fails or the batch is interrupted
+   */
+  public SimulationReport run(long games) throws IllegalArgumentException, IllegalStateException {
+    if (games < 0) {
+      throw new IllegalArgumentException("Games cannot be negative");
+    }
+    AtomicLong remaining = new AtomicLong(games);
+    List<Callable<long[]>> workers = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      workers.add(() -> playGames(remaining));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    long start = System.nanoTime();
+    long[] totals = new long[4];
+    try {
+      for (Future<long[]> result : executor.invokeAll(workers)) {
+        long[] counts = result.get();
+        for (int i = 0; i < totals.length; i++) {
+          totals[i] += counts[i];
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Simulation interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Simulation failed", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    long elapsed = System.nanoTime() - start;
+    long played = totals[1] + totals[2] + totals[3];
+    return new SimulationReport(played, totals[0], totals[1], totals[2], totals[3], elapsed);
+  }
+
+  /**
+   * Plays games on one worker until the shared budget of games is used up.
+   *
+   * @param remaining the number of games still to be started by any worker
+   * @return the number of moves, RED wins, YELLOW wins and draws, in that order
+   */
+  private long[] playGames(AtomicLong remaining) {
+    ConnectFourModel m = modelFactory.get();
+    MoveSearcher red = redFactory.get();
+    MoveSearcher yellow = yellowFactory.get();
+    long[] counts = new long[4];
+    while (remaining.getAndDecrement() > 0) {
+      m.resetBoard();
+      while (!m.isGameOver()) {
+        MoveSearcher player = m.getTurn() == Player.RED ? red : yellow;
+        m.makeMove(player.findMove(m));
+        counts[0]++;
+      }
+      Player winner = m.getWinner();
+      if (winner == Player.RED) {
+        counts[1]++;
+      } else if (winner == Player.YELLOW) {
+        counts[2]++;
+      } else {
+        counts[3]++;
+      }
+    }
+    return counts;
+  }
+}
@@ -0,0 +1,87 @@
+package connect;
+
+import java.util.Random;
+
+/**
+ * A computer player for Connect Four that looks one move ahead for each side: it plays a winning
+ * column when there is one, otherwise a random column that does not let the opponent win on the
+ * next move, and a random legal column if every move loses. It is meant for simulations and is
+ * not safe to share between threads.
+ */
+public class GreedyMoveSearcher implements MoveSearcher {
+  private final Random random;
+  private int[] safe;
+
+  /**
+   * Constructs a new GreedyMoveSearcher object with a random seed.
+   */
+  public GreedyMoveSearcher() {
+    this.random = new Random();
+  }
+
+  /**
+   * Constructs a new GreedyMoveSearcher object with the specified seed, so that its moves can
+   * be reproduced.
+   *
+   * @param seed the seed of the random number generator
+   */
+  public GreedyMoveSearcher(long seed) {
+    this.random = new Random(seed);
+  }
+
+  @Override
+  public int findMove(ConnectFourModel m) throws IllegalArgumentException, IllegalStateException {
+    if (m == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    if (m.isGameOver()) {
+      throw new IllegalStateException("Game is over");
+    }
+    ConnectFourBitboardModel board = ConnectFourBitboardModel.copyOf(m);
+    int columns = m.getColumns();
+    if (safe == null || safe.length != columns) {
+      safe = new int[columns];
+    }
+    int safeCount = 0;
+    int anyLegal = -1;
+    for (int c = 0; c < columns; c++) {
+      if (!board.canPlay(c)) {
+        continue;
+      }
+      anyLegal = c;
+      board.play(c);
+      if (board.getWinner() != null) {
+        return c + 1;
+      }
+      if (!opponentCanWin(board, columns)) {
+        safe[safeCount++] = c;
+      }
+      board.unplay(c);
+    }
+    if (safeCount == 0) {
+      return anyLegal + 1;
+    }
+    return safe[random.nextInt(safeCount)] + 1;
+  }
+
+  /**
+   * Checks whether the player to move can win with a single disc.
+   *
+   * @param board   the position
+   * @param columns the number of columns
+   * @return true if some column wins immediately
+   */
+  private boolean opponentCanWin(ConnectFourBitboardModel board, int columns) {
+    for (int c = 0; c < columns; c++) {
+      if (board.canPlay(c)) {
+        board.play(c);
+        boolean win = board.getWinner() != null;
+        board.unplay(c);
+        if (win) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
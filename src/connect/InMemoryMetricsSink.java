@@ -0,0 +1,62 @@
+package connect;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A sink that keeps the most recent snapshots in memory, for tests and for serving them on
+ * demand.
+ */
+public class InMemoryMetricsSink implements MetricsSink {
+  private final int capacity;
+  private final Deque<MetricsSnapshot> snapshots;
+
+  /**
+   * Constructs a new InMemoryMetricsSink object that keeps the last 100 snapshots.
+   */
+  public InMemoryMetricsSink() {
+    this(100);
+  }
+
+  /**
+   * Constructs a new InMemoryMetricsSink object.
+   *
+   * @param capacity the number of snapshots to keep
+   * @throws IllegalArgumentException if the capacity is not positive
+   */
+  public InMemoryMetricsSink(int capacity) throws IllegalArgumentException {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+    this.capacity = capacity;
+    this.snapshots = new ArrayDeque<>();
+  }
+
+  @Override
+  public synchronized void publish(MetricsSnapshot snapshot) {
+    if (snapshots.size() == capacity) {
+      snapshots.removeFirst();
+    }
+    snapshots.addLast(snapshot);
+  }
+
+  /**
+   * Retrieves the snapshots kept, oldest first.
+   *
+   * @return a copy of the snapshots
+   */
+  public synchronized List<MetricsSnapshot> getSnapshots() {
+    return new ArrayList<>(snapshots);
+  }
+
+  /**
+   * Retrieves the most recent snapshot.
+   *
+   * @return the last snapshot, or null if none was published
+   */
+  public synchronized MetricsSnapshot getLatest() {
+    return snapshots.peekLast();
+  }
+}
@@ -0,0 +1,158 @@
+package connect;
+
+import java.io.IOException;
+
+/**
+ * A model that measures another model. Every call of {@link #makeMove(int)},
+ * {@link #isGameOver()}, {@link #getWinner()}, {@link #getBoardState()}, {@link #toString()} and
+ * {@link #renderBoard(Appendable)} is timed and recorded in a {@link ModelMetrics}; the other
+ * calls are passed on untouched. When the metrics are disabled, calls are passed on without
+ * reading the clock.
+ */
+public class InstrumentedModel implements ConnectFourModel {
+  private final ConnectFourModel delegate;
+  private final ModelMetrics metrics;
+
+  /**
+   * Constructs a new InstrumentedModel object.
+   *
+   * @param delegate the model to measure
+   * @param metrics  where the latencies are recorded
+   * @throws IllegalArgumentException if the model or the metrics are null
+   */
+  public InstrumentedModel(ConnectFourModel delegate, ModelMetrics metrics)
+      throws IllegalArgumentException {
+    if (delegate == null || metrics == null) {
+      throw new IllegalArgumentException("Model and metrics cannot be null");
+    }
+    this.delegate = delegate;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public void initializeBoard() {
+    delegate.initializeBoard();
+  }
+
+  @Override
+  public void makeMove(int column) throws IllegalArgumentException, IllegalStateException {
+    if (!metrics.isEnabled()) {
+      delegate.makeMove(column);
+      return;
+    }
+    long start = System.nanoTime();
+    try {
+      delegate.makeMove(column);
+    } finally {
+      metrics.record(ModelOperation.MAKE_MOVE, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public void undoMove() throws IllegalStateException {
+    delegate.undoMove();
+  }
+
+  @Override
+  public void redoMove() throws IllegalStateException {
+    delegate.redoMove();
+  }
+
+  @Override
+  public int[] getMoveHistory() {
+    return delegate.getMoveHistory();
+  }
+
+  @Override
+  public Player getTurn() {
+    return delegate.getTurn();
+  }
+
+  @Override
+  public boolean isGameOver() {
+    if (!metrics.isEnabled()) {
+      return delegate.isGameOver();
+    }
+    long start = System.nanoTime();
+    boolean over = delegate.isGameOver();
+    metrics.record(ModelOperation.IS_GAME_OVER, System.nanoTime() - start);
+    return over;
+  }
+
+  @Override
+  public Player getWinner() {
+    if (!metrics.isEnabled()) {
+      return delegate.getWinner();
+    }
+    long start = System.nanoTime();
+    Player winner = delegate.getWinner();
+    metrics.record(ModelOperation.GET_WINNER, System.nanoTime() - start);
+    return winner;
+  }
+
+  @Override
+  public void resetBoard() {
+    delegate.resetBoard();
+  }
+
+  @Override
+  public int getColumnHeight(int column) throws IllegalArgumentException {
+    return delegate.getColumnHeight(column);
+  }
+
+  @Override
+  public int getRows() {
+    return delegate.getRows();
+  }
+
+  @Override
+  public int getColumns() {
+    return delegate.getColumns();
+  }
+
+  @Override
+  public int getWinLength() {
+    return delegate.getWinLength();
+  }
+
+  @Override
+  public Player cellAt(int row, int column) throws IllegalArgumentException {
+    return delegate.cellAt(row, column);
+  }
+
+  @Override
+  public Player[][] getBoardState() {
+    if (!metrics.isEnabled()) {
+      return delegate.getBoardState();
+    }
+    long start = System.nanoTime();
+    Player[][] state = delegate.getBoardState();
+    metrics.record(ModelOperation.GET_BOARD_STATE, System.nanoTime() - start);
+    return state;
+  }
+
+  @Override
+  public void renderBoard(Appendable out) throws IOException {
+    if (!metrics.isEnabled()) {
+      delegate.renderBoard(out);
+      return;
+    }
+    long start = System.nanoTime();
+    try {
+      delegate.renderBoard(out);
+    } finally {
+      metrics.record(ModelOperation.RENDER_BOARD, System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public String toString() {
+    if (!metrics.isEnabled()) {
+      return delegate.toString();
+    }
+    long start = System.nanoTime();
+    String text = delegate.toString();
+    metrics.record(ModelOperation.TO_STRING, System.nanoTime() - start);
+    return text;
+  }
+}
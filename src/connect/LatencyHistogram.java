@@ -0,0 +1,127 @@
+package connect;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies in nanoseconds with log-linear buckets, in the style of an HDR
+ * histogram: values below 64 get a bucket each, and every power of two above that is split into
+ * 32 buckets, so that any recorded value is known to within about 3%. Recording a value is a few
+ * shifts and an atomic increment, with no allocation, and is safe from several threads.
+ */
+class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final long MAX_VALUE = (1L << 40) - 1;
+
+  private final AtomicLongArray counts;
+  private final AtomicLong total;
+  private final AtomicLong max;
+
+  /**
+   * Constructs a new empty LatencyHistogram object covering values up to about 18 minutes.
+   */
+  LatencyHistogram() {
+    this.counts = new AtomicLongArray(index(MAX_VALUE) + 1);
+    this.total = new AtomicLong();
+    this.max = new AtomicLong();
+  }
+
+  /**
+   * Records a value. Values beyond the largest bucket are counted in that bucket.
+   *
+   * @param nanos the value, in nanoseconds
+   */
+  void record(long nanos) {
+    long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+    counts.incrementAndGet(index(value));
+    total.addAndGet(value);
+    long previous = max.get();
+    while (value > previous && !max.compareAndSet(previous, value)) {
+      previous = max.get();
+    }
+  }
+
+  /**
+   * Retrieves the number of values recorded.
+   *
+   * @return the number of values
+   */
+  long getCount() {
+    long count = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      count += counts.get(i);
+    }
+    return count;
+  }
+
+  /**
+   * Retrieves the sum of the values recorded.
+   *
+   * @return the sum, in nanoseconds
+   */
+  long getTotal() {
+    return total.get();
+  }
+
+  /**
+   * Retrieves the largest value recorded.
+   *
+   * @return the largest value, in nanoseconds, or 0 if nothing was recorded
+   */
+  long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Retrieves the value below which the given fraction of the recorded values lie.
+   *
+   * @param fraction the fraction, between 0 and 1
+   * @return the upper end of the bucket holding that value, in nanoseconds, or 0 if nothing was
+   *         recorded
+   */
+  long getPercentile(double fraction) {
+    long[] snapshot = new long[counts.length()];
+    long count = 0;
+    for (int i = 0; i < snapshot.length; i++) {
+      snapshot[i] = counts.get(i);
+      count += snapshot[i];
+    }
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(fraction * count));
+    long seen = 0;
+    for (int i = 0; i < snapshot.length; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min(upperBound(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * Computes the bucket of a value.
+   *
+   * @param value the value, at most {@link #MAX_VALUE}
+   * @return the index of the bucket
+   */
+  private static int index(long value) {
+    int exponent = 63 - Long.numberOfLeadingZeros(value | 1);
+    int shift = Math.max(0, exponent - SUB_BUCKET_BITS);
+    return shift * SUB_BUCKETS + (int) (value >>> shift);
+  }
+
+  /**
+   * Computes the largest value that falls in a bucket.
+   *
+   * @param index the index of the bucket
+   * @return the upper end of the bucket
+   */
+  private static long upperBound(int index) {
+    int shift = Math.max(0, index / SUB_BUCKETS - 1);
+    long mantissa = index - (long) shift * SUB_BUCKETS;
+    return ((mantissa + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,300 @@
+package connect;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Drives many console controllers at once, end to end, for capacity planning. Each session is a
+ * {@link ConnectFourConsoleController} with its own model and buffered view, reading from a
+ * synthetic input and writing to an output that only counts characters. The sessions run as
+ * tasks on an executor from the given factory, so the same load can be run on a fixed pool of
+ * platform threads or on one virtual thread per session.
+ *
+ * <p>The input is made up one line at a time, when the controller asks for it, by looking at the
+ * session's model: mostly random legal moves, with some words that are not numbers, some
+ * columns out of bounds, some quits, and answers to the play-again question until the session
+ * has played its games. The time from handing the controller a line to it asking for the next one
+ * is the time of one turn through the controller, the model and the view; it is recorded in a
+ * histogram shared by all sessions. The bytes each session allocates are read from the JVM
+ * where it supports this for the session's thread.
+ */
+public class LoadGenerator {
+  private static final double QUIT_RATE = 0.01;
+  private static final double INVALID_INPUT_RATE = 0.03;
+  private static final double INVALID_MOVE_RATE = 0.03;
+  private static final int GAMES = 0;
+  private static final int TURNS = 1;
+  private static final int MOVES = 2;
+  private static final int INVALID_INPUTS = 3;
+  private static final int INVALID_MOVES = 4;
+  private static final int QUITS = 5;
+  private static final int OUTPUT_CHARS = 6;
+  private static final int ALLOCATED_BYTES = 7;
+
+  private final Supplier<ConnectFourModel> modelFactory;
+  private final Supplier<ExecutorService> executorFactory;
+  private final int sessions;
+  private final int gamesPerSession;
+  private final long seed;
+
+  /**
+   * Constructs a new LoadGenerator object.
+   *
+   * @param modelFactory    creates the model of each session
+   * @param executorFactory creates the executor the sessions run on, for example
+   *                        {@link VirtualThreads#newPerTaskExecutor()}
+   * @param sessions        the number of sessions
+   * @param gamesPerSession the number of games each session plays, counting quit games
+   * @param seed            the seed of the synthetic inputs
+   * @throws IllegalArgumentException if a factory is null or a number is not positive
+   */
+  public LoadGenerator(Supplier<ConnectFourModel> modelFactory,
+      Supplier<ExecutorService> executorFactory, int sessions, int gamesPerSession, long seed)
+      throws IllegalArgumentException {
+    if (modelFactory == null || executorFactory == null) {
+      throw new IllegalArgumentException("Factories cannot be null");
+    }
+    if (sessions <= 0 || gamesPerSession <= 0) {
+      throw new IllegalArgumentException("Sessions and games must be positive");
+    }
+    this.modelFactory = modelFactory;
+    this.executorFactory = executorFactory;
+    this.sessions = sessions;
+    this.gamesPerSession = gamesPerSession;
+    this.seed = seed;
+  }
+
+  /**
+   * Runs all sessions to the end and reports the results.
+   *
+   * @return the results of the load test
+   * @throws IllegalStateException if a session fails or the test is interrupted
+   */
+  public LoadReport run() throws IllegalStateException {
+    LatencyHistogram turns = new LatencyHistogram();
+    List<Callable<long[]>> tasks = new ArrayList<>();
+    for (int i = 0; i < sessions; i++) {
+      long sessionSeed = seed + i;
+      tasks.add(() -> runSession(new Random(sessionSeed), turns));
+    }
+    ExecutorService executor = executorFactory.get();
+    long start = System.nanoTime();
+    long[] totals = new long[ALLOCATED_BYTES + 1];
+    try {
+      for (Future<long[]> result : executor.invokeAll(tasks)) {
+        long[] counts = result.get();
+        for (int i = 0; i < ALLOCATED_BYTES; i++) {
+          totals[i] += counts[i];
+        }
+        if (counts[ALLOCATED_BYTES] < 0 || totals[ALLOCATED_BYTES] < 0) {
+          totals[ALLOCATED_BYTES] = -1;
+        } else {
+          totals[ALLOCATED_BYTES] += counts[ALLOCATED_BYTES];
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Load test interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Session failed", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    long elapsed = System.nanoTime() - start;
+    return new LoadReport(sessions, totals[GAMES], totals[TURNS], totals[MOVES],
+        totals[INVALID_INPUTS], totals[INVALID_MOVES], totals[QUITS], totals[OUTPUT_CHARS],
+        turns.getPercentile(0.5), turns.getPercentile(0.99), turns.getMax(),
+        totals[ALLOCATED_BYTES], elapsed);
+  }
+
+  /**
+   * Plays one session's games on the calling thread.
+   *
+   * @param random the source of the session's input
+   * @param turns  the histogram the turn times are recorded in
+   * @return the counts of the session, indexed by the constants of this class
+   */
+  private long[] runSession(Random random, LatencyHistogram turns) {
+    long allocatedBefore = allocatedBytes();
+    ConnectFourModel m = modelFactory.get();
+    CountingOutput output = new CountingOutput();
+    ScriptedInput input = new ScriptedInput(m, random, turns);
+    ConnectFourConsoleController controller = new ConnectFourConsoleController(input,
+        new ConnectFourView(output, true));
+    while (!input.done) {
+      m.resetBoard();
+      controller.playGame(m);
+    }
+    long allocatedAfter = allocatedBytes();
+    long[] counts = input.counts;
+    counts[OUTPUT_CHARS] = output.chars;
+    counts[ALLOCATED_BYTES] = allocatedBefore < 0 || allocatedAfter < 0 ? -1
+        : allocatedAfter - allocatedBefore;
+    return counts;
+  }
+
+  /**
+   * Reads the number of bytes allocated by the calling thread so far.
+   *
+   * @return the number of bytes, or -1 if the JVM cannot tell for this thread
+   */
+  private static long allocatedBytes() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+      if (allocations.isThreadAllocatedMemorySupported()
+          && allocations.isThreadAllocatedMemoryEnabled()) {
+        return allocations.getCurrentThreadAllocatedBytes();
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * The input of one session, made up a line at a time from the state of its model. The
+   * controller's tokenizer only reads when it has used up what it was given, so each line is
+   * made after the previous one has been handled.
+   */
+  private final class ScriptedInput implements Readable {
+    private final ConnectFourModel m;
+    private final Random random;
+    private final LatencyHistogram turns;
+    private final long[] counts;
+    private final char[] line;
+    private int lineStart;
+    private int lineEnd;
+    private long handedOver;
+    private boolean done;
+
+    /**
+     * Constructs a new ScriptedInput object.
+     *
+     * @param m      the model of the session
+     * @param random the source of the input
+     * @param turns  the histogram the turn times are recorded in
+     */
+    private ScriptedInput(ConnectFourModel m, Random random, LatencyHistogram turns) {
+      this.m = m;
+      this.random = random;
+      this.turns = turns;
+      this.counts = new long[ALLOCATED_BYTES + 1];
+      this.line = new char[16];
+    }
+
+    @Override
+    public int read(CharBuffer cb) {
+      long now = System.nanoTime();
+      if (lineStart == lineEnd) {
+        if (done) {
+          return -1;
+        }
+        if (handedOver != 0) {
+          turns.record(now - handedOver);
+          counts[TURNS]++;
+        }
+        nextLine();
+      }
+      int n = Math.min(cb.remaining(), lineEnd - lineStart);
+      cb.put(line, lineStart, n);
+      lineStart += n;
+      handedOver = System.nanoTime();
+      return n;
+    }
+
+    /**
+     * Makes up the next line of input.
+     */
+    private void nextLine() {
+      lineStart = 0;
+      lineEnd = 0;
+      if (m.isGameOver()) {
+        counts[GAMES]++;
+        done = counts[GAMES] >= gamesPerSession;
+        append(done ? 'n' : 'y');
+      } else {
+        double r = random.nextDouble();
+        if (r < QUIT_RATE) {
+          counts[GAMES]++;
+          counts[QUITS]++;
+          done = counts[GAMES] >= gamesPerSession;
+          append('0');
+        } else if (r < QUIT_RATE + INVALID_INPUT_RATE) {
+          counts[INVALID_INPUTS]++;
+          append('x');
+        } else if (r < QUIT_RATE + INVALID_INPUT_RATE + INVALID_MOVE_RATE) {
+          counts[INVALID_MOVES]++;
+          appendNumber(m.getColumns() + 1 + random.nextInt(10));
+        } else {
+          int column;
+          do {
+            column = 1 + random.nextInt(m.getColumns());
+          } while (m.getColumnHeight(column) == m.getRows());
+          counts[MOVES]++;
+          appendNumber(column);
+        }
+      }
+      append('\n');
+    }
+
+    /**
+     * Appends a positive number to the line without building a string.
+     *
+     * @param number the number
+     */
+    private void appendNumber(int number) {
+      int start = lineEnd;
+      do {
+        append((char) ('0' + number % 10));
+        number /= 10;
+      } while (number > 0);
+      for (int i = start, j = lineEnd - 1; i < j; i++, j--) {
+        char c = line[i];
+        line[i] = line[j];
+        line[j] = c;
+      }
+    }
+
+    /**
+     * Appends a character to the line.
+     *
+     * @param c the character
+     */
+    private void append(char c) {
+      line[lineEnd++] = c;
+    }
+  }
+
+  /**
+   * An output that throws away what is written to it and only counts the characters.
+   */
+  private static final class CountingOutput implements Appendable {
+    private long chars;
+
+    @Override
+    public Appendable append(CharSequence csq) {
+      chars += csq == null ? 4 : csq.length();
+      return this;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) {
+      chars += end - start;
+      return this;
+    }
+
+    @Override
+    public Appendable append(char c) {
+      chars++;
+      return this;
+    }
+  }
+}
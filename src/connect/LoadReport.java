@@ -0,0 +1,229 @@
+package connect;
+
+/**
+ * The results of a load test run by a {@link LoadGenerator}: how much the sessions did, how long
+ * each turn took through the whole controller, model and view, and how much memory they
+ * allocated.
+ */
+public class LoadReport {
+  private final int sessions;
+  private final long games;
+  private final long turns;
+  private final long moves;
+  private final long invalidInputs;
+  private final long invalidMoves;
+  private final long quits;
+  private final long outputChars;
+  private final long medianTurnNanos;
+  private final long p99TurnNanos;
+  private final long maxTurnNanos;
+  private final long allocatedBytes;
+  private final long elapsedNanos;
+
+  /**
+   * Constructs a new LoadReport object.
+   *
+   * @param sessions        the number of sessions run
+   * @param games           the number of games finished or quit
+   * @param turns           the number of inputs handled by the controllers
+   * @param moves           the number of legal moves sent
+   * @param invalidInputs   the number of words sent that are not numbers
+   * @param invalidMoves    the number of illegal columns sent
+   * @param quits           the number of games quit
+   * @param outputChars     the number of characters written by the views
+   * @param medianTurnNanos the median time of a turn, in nanoseconds
+   * @param p99TurnNanos    the 99th percentile time of a turn, in nanoseconds
+   * @param maxTurnNanos    the longest time of a turn, in nanoseconds
+   * @param allocatedBytes  the bytes allocated by the sessions, or -1 if it cannot be measured
+   * @param elapsedNanos    the wall-clock time the test took, in nanoseconds
+   */
+  LoadReport(int sessions, long games, long turns, long moves, long invalidInputs,
+      long invalidMoves, long quits, long outputChars, long medianTurnNanos, long p99TurnNanos,
+      long maxTurnNanos, long allocatedBytes, long elapsedNanos) {
+    this.sessions = sessions;
+    this.games = games;
+    this.turns = turns;
+    this.moves = moves;
+    this.invalidInputs = invalidInputs;
+    this.invalidMoves = invalidMoves;
+    this.quits = quits;
+    this.outputChars = outputChars;
+    this.medianTurnNanos = medianTurnNanos;
+    this.p99TurnNanos = p99TurnNanos;
+    this.maxTurnNanos = maxTurnNanos;
+    this.allocatedBytes = allocatedBytes;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Retrieves the number of sessions run.
+   *
+   * @return the number of sessions
+   */
+  public int getSessions() {
+    return sessions;
+  }
+
+  /**
+   * Retrieves the number of games finished or quit.
+   *
+   * @return the number of games
+   */
+  public long getGames() {
+    return games;
+  }
+
+  /**
+   * Retrieves the number of inputs handled by the controllers: moves, rejected input and
+   * answers to the play-again question.
+   *
+   * @return the number of turns
+   */
+  public long getTurns() {
+    return turns;
+  }
+
+  /**
+   * Retrieves the number of legal moves sent.
+   *
+   * @return the number of moves
+   */
+  public long getMoves() {
+    return moves;
+  }
+
+  /**
+   * Retrieves the number of words sent that are not numbers.
+   *
+   * @return the number of invalid inputs
+   */
+  public long getInvalidInputs() {
+    return invalidInputs;
+  }
+
+  /**
+   * Retrieves the number of columns sent that are out of bounds or full.
+   *
+   * @return the number of invalid moves
+   */
+  public long getInvalidMoves() {
+    return invalidMoves;
+  }
+
+  /**
+   * Retrieves the number of games quit before they were over.
+   *
+   * @return the number of quits
+   */
+  public long getQuits() {
+    return quits;
+  }
+
+  /**
+   * Retrieves the number of characters written by the views.
+   *
+   * @return the number of characters
+   */
+  public long getOutputChars() {
+    return outputChars;
+  }
+
+  /**
+   * Retrieves the median time a turn took, from handing the controller an input to it asking
+   * for the next one.
+   *
+   * @return the median in nanoseconds
+   */
+  public long getMedianTurnNanos() {
+    return medianTurnNanos;
+  }
+
+  /**
+   * Retrieves the 99th percentile time a turn took.
+   *
+   * @return the 99th percentile in nanoseconds
+   */
+  public long getP99TurnNanos() {
+    return p99TurnNanos;
+  }
+
+  /**
+   * Retrieves the longest time a turn took.
+   *
+   * @return the maximum in nanoseconds
+   */
+  public long getMaxTurnNanos() {
+    return maxTurnNanos;
+  }
+
+  /**
+   * Retrieves the number of bytes the sessions allocated.
+   *
+   * @return the number of bytes, or -1 if the running Java version cannot measure it
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /**
+   * Retrieves the wall-clock time the test took.
+   *
+   * @return the elapsed time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Computes the number of turns handled per second.
+   *
+   * @return the turn throughput
+   */
+  public double getTurnsPerSecond() {
+    return perSecond(turns);
+  }
+
+  /**
+   * Computes the number of bytes allocated per second.
+   *
+   * @return the allocation rate, or -1 if it cannot be measured
+   */
+  public double getAllocationRate() {
+    return allocatedBytes < 0 ? -1 : perSecond(allocatedBytes);
+  }
+
+  /**
+   * Computes the number of bytes allocated per turn.
+   *
+   * @return the bytes per turn, or -1 if they cannot be measured
+   */
+  public double getBytesPerTurn() {
+    if (allocatedBytes < 0) {
+      return -1;
+    }
+    return turns == 0 ? 0 : (double) allocatedBytes / turns;
+  }
+
+  /**
+   * Divides a count by the elapsed time.
+   *
+   * @param count the count
+   * @return the count per second
+   */
+  private double perSecond(long count) {
+    return elapsedNanos == 0 ? 0 : count * 1e9 / elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    String allocation = allocatedBytes < 0 ? "allocation not measured"
+        : String.format("%.1f MB/s allocated (%.0f B/turn)", getAllocationRate() / 1e6,
+            getBytesPerTurn());
+    return String.format("%d sessions, %d games, %d turns in %.3f s (%.0f turns/s), "
+            + "turn p50 %d ns p99 %d ns max %d ns, %s, "
+            + "%d moves, %d invalid inputs, %d invalid moves, %d quits, %d chars written",
+        sessions, games, turns, elapsedNanos / 1e9, getTurnsPerSecond(), medianTurnNanos,
+        p99TurnNanos, maxTurnNanos, allocation, moves, invalidInputs, invalidMoves, quits,
+        outputChars);
+  }
+}
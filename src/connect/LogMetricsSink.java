@@ -0,0 +1,35 @@
+package connect;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * A sink that writes every snapshot as a single line of text, for example to a log file or the
+ * console. Combined with {@link ModelMetrics#startReporting(long)} it logs the metrics
+ * periodically.
+ */
+public class LogMetricsSink implements MetricsSink {
+  private final Appendable out;
+
+  /**
+   * Constructs a new LogMetricsSink object.
+   *
+   * @param out where the lines are written
+   * @throws IllegalArgumentException if the destination is null
+   */
+  public LogMetricsSink(Appendable out) throws IllegalArgumentException {
+    if (out == null) {
+      throw new IllegalArgumentException("Output cannot be null");
+    }
+    this.out = out;
+  }
+
+  @Override
+  public synchronized void publish(MetricsSnapshot snapshot) throws UncheckedIOException {
+    try {
+      out.append(snapshot.toString()).append("\n");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package connect;
+
+/**
+ * Where the metrics collected by {@link ModelMetrics} are sent.
+ */
+public interface MetricsSink {
+
+  /**
+   * Receives a snapshot of the metrics. It may be called from a reporting thread.
+   *
+   * @param snapshot the metrics at one point in time
+   */
+  void publish(MetricsSnapshot snapshot);
+}
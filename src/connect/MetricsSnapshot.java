@@ -0,0 +1,205 @@
+package connect;
+
+import java.util.Locale;
+
+/**
+ * The metrics collected by {@link ModelMetrics} at one point in time: for every
+ * {@link ModelOperation}, how often it was called and how long it took, and for the games, how
+ * many moves were made and how often players made invalid moves or quit. All values count from
+ * the creation of the metrics.
+ */
+public class MetricsSnapshot {
+  private final long timestampMillis;
+  private final long[] calls;
+  private final long[] totalNanos;
+  private final long[] medianNanos;
+  private final long[] p99Nanos;
+  private final long[] maxNanos;
+  private final long moves;
+  private final long invalidInputs;
+  private final long invalidMoves;
+  private final long quits;
+  private final long gamesOver;
+
+  /**
+   * Constructs a new MetricsSnapshot object. The arrays are indexed by the ordinal of the
+   * {@link ModelOperation}.
+   *
+   * @param timestampMillis the time the snapshot was taken, in milliseconds since the epoch
+   * @param calls           the number of calls of each operation
+   * @param totalNanos      the total time spent in each operation
+   * @param medianNanos     the median latency of each operation
+   * @param p99Nanos        the 99th percentile latency of each operation
+   * @param maxNanos        the largest latency of each operation
+   * @param moves           the number of moves made
+   * @param invalidInputs   the number of inputs that were not a number
+   * @param invalidMoves    the number of moves rejected by the model
+   * @param quits           the number of games quit before they were over
+   * @param gamesOver       the number of games played to the end
+   */
+  MetricsSnapshot(long timestampMillis, long[] calls, long[] totalNanos, long[] medianNanos,
+      long[] p99Nanos, long[] maxNanos, long moves, long invalidInputs, long invalidMoves,
+      long quits, long gamesOver) {
+    this.timestampMillis = timestampMillis;
+    this.calls = calls;
+    this.totalNanos = totalNanos;
+    this.medianNanos = medianNanos;
+    this.p99Nanos = p99Nanos;
+    this.maxNanos = maxNanos;
+    this.moves = moves;
+    this.invalidInputs = invalidInputs;
+    this.invalidMoves = invalidMoves;
+    this.quits = quits;
+    this.gamesOver = gamesOver;
+  }
+
+  /**
+   * Retrieves the time the snapshot was taken.
+   *
+   * @return the time, in milliseconds since the epoch
+   */
+  public long getTimestampMillis() {
+    return timestampMillis;
+  }
+
+  /**
+   * Retrieves the number of calls of an operation.
+   *
+   * @param operation the operation
+   * @return the number of calls
+   */
+  public long getCallCount(ModelOperation operation) {
+    return calls[operation.ordinal()];
+  }
+
+  /**
+   * Retrieves the average latency of an operation.
+   *
+   * @param operation the operation
+   * @return the mean latency, in nanoseconds, or 0 if it was never called
+   */
+  public double getMeanNanos(ModelOperation operation) {
+    long count = calls[operation.ordinal()];
+    return count == 0 ? 0 : (double) totalNanos[operation.ordinal()] / count;
+  }
+
+  /**
+   * Retrieves the median latency of an operation.
+   *
+   * @param operation the operation
+   * @return the median latency, in nanoseconds, to within about 3%
+   */
+  public long getMedianNanos(ModelOperation operation) {
+    return medianNanos[operation.ordinal()];
+  }
+
+  /**
+   * Retrieves the 99th percentile latency of an operation.
+   *
+   * @param operation the operation
+   * @return the 99th percentile latency, in nanoseconds, to within about 3%
+   */
+  public long getP99Nanos(ModelOperation operation) {
+    return p99Nanos[operation.ordinal()];
+  }
+
+  /**
+   * Retrieves the largest latency of an operation.
+   *
+   * @param operation the operation
+   * @return the largest latency, in nanoseconds
+   */
+  public long getMaxNanos(ModelOperation operation) {
+    return maxNanos[operation.ordinal()];
+  }
+
+  /**
+   * Retrieves the number of moves made.
+   *
+   * @return the number of moves
+   */
+  public long getMoves() {
+    return moves;
+  }
+
+  /**
+   * Retrieves the number of inputs that were not a number.
+   *
+   * @return the number of invalid inputs
+   */
+  public long getInvalidInputs() {
+    return invalidInputs;
+  }
+
+  /**
+   * Retrieves the number of moves rejected by the model.
+   *
+   * @return the number of invalid moves
+   */
+  public long getInvalidMoves() {
+    return invalidMoves;
+  }
+
+  /**
+   * Retrieves the number of games quit before they were over.
+   *
+   * @return the number of quits
+   */
+  public long getQuits() {
+    return quits;
+  }
+
+  /**
+   * Retrieves the number of games played to the end.
+   *
+   * @return the number of finished games
+   */
+  public long getGamesOver() {
+    return gamesOver;
+  }
+
+  /**
+   * Computes the fraction of attempted moves that were rejected.
+   *
+   * @return the invalid moves divided by all attempted moves, or 0 if none was attempted
+   */
+  public double getInvalidMoveRate() {
+    long attempts = moves + invalidMoves;
+    return attempts == 0 ? 0 : (double) invalidMoves / attempts;
+  }
+
+  /**
+   * Computes the fraction of games that were quit before they were over.
+   *
+   * @return the quits divided by all games that ended, or 0 if no game ended
+   */
+  public double getQuitRate() {
+    long games = quits + gamesOver;
+    return games == 0 ? 0 : (double) quits / games;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("metrics at ").append(timestampMillis);
+    for (ModelOperation operation : ModelOperation.values()) {
+      int i = operation.ordinal();
+      if (calls[i] == 0) {
+        continue;
+      }
+      sb.append(" | ").append(operation.name().toLowerCase(Locale.ROOT))
+          .append(" calls=").append(calls[i])
+          .append(" p50=").append(medianNanos[i]).append("ns")
+          .append(" p99=").append(p99Nanos[i]).append("ns")
+          .append(" max=").append(maxNanos[i]).append("ns");
+    }
+    sb.append(" | moves=").append(moves)
+        .append(" invalidInputs=").append(invalidInputs)
+        .append(" invalidMoves=").append(invalidMoves)
+        .append(String.format(Locale.ROOT, " invalidMoveRate=%.4f", getInvalidMoveRate()))
+        .append(" quits=").append(quits)
+        .append(" gamesOver=").append(gamesOver)
+        .append(String.format(Locale.ROOT, " quitRate=%.4f", getQuitRate()));
+    return sb.toString();
+  }
+}
@@ -0,0 +1,188 @@
+package connect;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects metrics about Connect Four games: the latency of model operations, recorded by
+ * {@link InstrumentedModel}, and the moves, invalid moves, invalid inputs, quits and finished
+ * games reported by a controller, to which it is given as a {@link GameEventListener}. One
+ * instance can be shared by every game of a server. Snapshots of the metrics go to a
+ * {@link MetricsSink}, either on demand with {@link #publish()} or periodically from a
+ * background thread.
+ *
+ * <p>Metrics can be switched off at run time; an instrumented model then costs one volatile read
+ * per call on top of the model itself.
+ */
+public class ModelMetrics implements GameEventListener, AutoCloseable {
+  private final MetricsSink sink;
+  private final LatencyHistogram[] histograms;
+  private final AtomicLong moves;
+  private final AtomicLong invalidInputs;
+  private final AtomicLong invalidMoves;
+  private final AtomicLong quits;
+  private final AtomicLong gamesOver;
+  private volatile boolean enabled;
+  private ScheduledExecutorService reporter;
+
+  /**
+   * Constructs a new enabled ModelMetrics object.
+   *
+   * @param sink where the snapshots are sent
+   * @throws IllegalArgumentException if the sink is null
+   */
+  public ModelMetrics(MetricsSink sink) throws IllegalArgumentException {
+    if (sink == null) {
+      throw new IllegalArgumentException("Sink cannot be null");
+    }
+    this.sink = sink;
+    this.histograms = new LatencyHistogram[ModelOperation.values().length];
+    for (int i = 0; i < histograms.length; i++) {
+      histograms[i] = new LatencyHistogram();
+    }
+    this.moves = new AtomicLong();
+    this.invalidInputs = new AtomicLong();
+    this.invalidMoves = new AtomicLong();
+    this.quits = new AtomicLong();
+    this.gamesOver = new AtomicLong();
+    this.enabled = true;
+  }
+
+  /**
+   * Checks whether metrics are being collected.
+   *
+   * @return true if calls and events are recorded
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Switches the collection of metrics on or off. What was recorded so far is kept.
+   *
+   * @param enabled true to record calls and events
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Records the latency of one call of a model operation.
+   *
+   * @param operation the operation
+   * @param nanos     the time the call took, in nanoseconds
+   */
+  public void record(ModelOperation operation, long nanos) {
+    histograms[operation.ordinal()].record(nanos);
+  }
+
+  @Override
+  public void onMove(Player player, int column) {
+    if (enabled) {
+      moves.incrementAndGet();
+    }
+  }
+
+  @Override
+  public void onInvalidInput() {
+    if (enabled) {
+      invalidInputs.incrementAndGet();
+    }
+  }
+
+  @Override
+  public void onInvalidMove(int column) {
+    if (enabled) {
+      invalidMoves.incrementAndGet();
+    }
+  }
+
+  @Override
+  public void onQuit() {
+    if (enabled) {
+      quits.incrementAndGet();
+    }
+  }
+
+  @Override
+  public void onGameOver(Player winner) {
+    if (enabled) {
+      gamesOver.incrementAndGet();
+    }
+  }
+
+  /**
+   * Takes a snapshot of the metrics collected so far.
+   *
+   * @return the snapshot
+   */
+  public MetricsSnapshot snapshot() {
+    int n = histograms.length;
+    long[] calls = new long[n];
+    long[] total = new long[n];
+    long[] median = new long[n];
+    long[] p99 = new long[n];
+    long[] max = new long[n];
+    for (int i = 0; i < n; i++) {
+      calls[i] = histograms[i].getCount();
+      total[i] = histograms[i].getTotal();
+      median[i] = histograms[i].getPercentile(0.5);
+      p99[i] = histograms[i].getPercentile(0.99);
+      max[i] = histograms[i].getMax();
+    }
+    return new MetricsSnapshot(System.currentTimeMillis(), calls, total, median, p99, max,
+        moves.get(), invalidInputs.get(), invalidMoves.get(), quits.get(), gamesOver.get());
+  }
+
+  /**
+   * Sends a snapshot of the metrics to the sink.
+   */
+  public void publish() {
+    sink.publish(snapshot());
+  }
+
+  /**
+   * Starts sending a snapshot to the sink at a fixed rate from a background thread, until the
+   * metrics are closed. Errors thrown by the sink are printed and do not stop the reporting.
+   *
+   * @param periodMillis the time between two snapshots, in milliseconds
+   * @throws IllegalArgumentException if the period is not positive
+   * @throws IllegalStateException    if reporting was already started
+   */
+  public synchronized void startReporting(long periodMillis) throws IllegalArgumentException,
+      IllegalStateException {
+    if (periodMillis <= 0) {
+      throw new IllegalArgumentException("Period must be positive");
+    }
+    if (reporter != null) {
+      throw new IllegalStateException("Reporting already started");
+    }
+    reporter = Executors.newSingleThreadScheduledExecutor(task -> {
+      Thread thread = new Thread(task, "connect-four-metrics");
+      thread.setDaemon(true);
+      return thread;
+    });
+    reporter.scheduleAtFixedRate(() -> {
+      try {
+        publish();
+      } catch (RuntimeException e) {
+        e.printStackTrace();
+      }
+    }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops the periodic reporting and sends a last snapshot to the sink. Nothing happens if
+   * reporting was not started.
+   */
+  @Override
+  public synchronized void close() {
+    if (reporter != null) {
+      reporter.shutdownNow();
+      reporter = null;
+      publish();
+    }
+  }
+}
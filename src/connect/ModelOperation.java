@@ -0,0 +1,13 @@
+package connect;
+
+/**
+ * The model operations whose latency is measured by an {@link InstrumentedModel}.
+ */
+public enum ModelOperation {
+  MAKE_MOVE,
+  IS_GAME_OVER,
+  GET_WINNER,
+  GET_BOARD_STATE,
+  TO_STRING,
+  RENDER_BOARD
+}
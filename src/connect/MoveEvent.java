@@ -0,0 +1,99 @@
+package connect;
+
+/**
+ * A move made on a model, as sent to a {@link MoveListener}: where the disc landed, whose it is
+ * and how the game stands afterwards. It holds everything needed to apply the move to a copy of
+ * the board without looking at the rest of the board.
+ */
+public final class MoveEvent {
+  private final int moveNumber;
+  private final int column;
+  private final int row;
+  private final Player player;
+  private final boolean gameOver;
+  private final Player winner;
+
+  /**
+   * Constructs a new MoveEvent object.
+   *
+   * @param moveNumber the number of moves on the board after this one
+   * @param column     the column played, starting at 1
+   * @param row        the row the disc landed in, starting at 0 from the bottom
+   * @param player     the player who made the move
+   * @param gameOver   whether the move ended the game
+   * @param winner     the winner after the move, or null if there is none
+   * @throws IllegalArgumentException if the player is null
+   */
+  public MoveEvent(int moveNumber, int column, int row, Player player, boolean gameOver,
+      Player winner) throws IllegalArgumentException {
+    if (player == null) {
+      throw new IllegalArgumentException("Player cannot be null");
+    }
+    this.moveNumber = moveNumber;
+    this.column = column;
+    this.row = row;
+    this.player = player;
+    this.gameOver = gameOver;
+    this.winner = winner;
+  }
+
+  /**
+   * Retrieves the number of moves on the board after this move.
+   *
+   * @return the move number, starting at 1 for the first move of a game
+   */
+  public int getMoveNumber() {
+    return moveNumber;
+  }
+
+  /**
+   * Retrieves the column played.
+   *
+   * @return the column, starting at 1
+   */
+  public int getColumn() {
+    return column;
+  }
+
+  /**
+   * Retrieves the row the disc landed in.
+   *
+   * @return the row, starting at 0 from the bottom
+   */
+  public int getRow() {
+    return row;
+  }
+
+  /**
+   * Retrieves the player who made the move.
+   *
+   * @return the player
+   */
+  public Player getPlayer() {
+    return player;
+  }
+
+  /**
+   * Checks whether the move ended the game.
+   *
+   * @return true if the game is over after the move
+   */
+  public boolean isGameOver() {
+    return gameOver;
+  }
+
+  /**
+   * Retrieves the winner after the move.
+   *
+   * @return the winner, or null if there is none
+   */
+  public Player getWinner() {
+    return winner;
+  }
+
+  @Override
+  public String toString() {
+    return "move " + moveNumber + " " + column + " " + row + " " + player.getDisplayName()
+        + (winner != null ? " win" : gameOver ? " tie" : "");
+  }
+}
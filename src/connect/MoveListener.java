@@ -0,0 +1,22 @@
+package connect;
+
+/**
+ * Receives the changes made to an {@link ObservableModel}, on the thread that made them.
+ */
+public interface MoveListener {
+
+  /**
+   * Called after a disc was dropped, by a new move or by a move made again.
+   *
+   * @param event the move
+   */
+  void onMove(MoveEvent event);
+
+  /**
+   * Called after the board changed in a way that is not a single new disc: a move was taken
+   * back or the board was reset. A listener that keeps a copy of the board must read it again.
+   *
+   * @param m the model after the change
+   */
+  void onBoardChanged(ConnectFourModel m);
+}
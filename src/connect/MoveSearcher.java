@@ -0,0 +1,17 @@
+package connect;
+
+/**
+ * A computer player for Connect Four: given the state of a game, chooses the column to play.
+ */
+public interface MoveSearcher {
+
+  /**
+   * Chooses a move for the player whose turn it is. The model is not modified.
+   *
+   * @param m a non-null Connect Four Model whose game is not over
+   * @return the column to play, numbered from 1 like in {@link ConnectFourModel#makeMove(int)}
+   * @throws IllegalArgumentException if the model is null
+   * @throws IllegalStateException    if the game is already over
+   */
+  int findMove(ConnectFourModel m) throws IllegalArgumentException, IllegalStateException;
+}
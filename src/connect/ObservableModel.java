@@ -0,0 +1,173 @@
+package connect;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A model that tells its listeners about every change made to another model. Each disc dropped
+ * is sent as a {@link MoveEvent}, which costs the same however large the board is; moves taken
+ * back and resets are sent as {@link MoveListener#onBoardChanged(ConnectFourModel)}. Listeners are
+ * called in the order they were added, on the thread that changed the model.
+ */
+public class ObservableModel implements ConnectFourModel {
+  private final ConnectFourModel delegate;
+  private final List<MoveListener> listeners;
+  private int moveCount;
+
+  /**
+   * Constructs a new ObservableModel object.
+   *
+   * @param delegate the model the games are played on
+   * @throws IllegalArgumentException if the model is null
+   */
+  public ObservableModel(ConnectFourModel delegate) throws IllegalArgumentException {
+    if (delegate == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    this.delegate = delegate;
+    this.listeners = new ArrayList<>();
+    this.moveCount = delegate.getMoveHistory().length;
+  }
+
+  /**
+   * Adds a listener told about every change from now on.
+   *
+   * @param listener the listener, for example a {@link ConnectFourDeltaView}
+   * @throws IllegalArgumentException if the listener is null
+   */
+  public void addListener(MoveListener listener) throws IllegalArgumentException {
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener cannot be null");
+    }
+    listeners.add(listener);
+  }
+
+  /**
+   * Removes a listener added before.
+   *
+   * @param listener the listener
+   */
+  public void removeListener(MoveListener listener) {
+    listeners.remove(listener);
+  }
+
+  @Override
+  public void initializeBoard() {
+    delegate.initializeBoard();
+    moveCount = 0;
+    boardChanged();
+  }
+
+  @Override
+  public void makeMove(int column) throws IllegalArgumentException, IllegalStateException {
+    Player player = delegate.getTurn();
+    delegate.makeMove(column);
+    moved(column, player);
+  }
+
+  @Override
+  public void undoMove() throws IllegalStateException {
+    delegate.undoMove();
+    moveCount--;
+    boardChanged();
+  }
+
+  @Override
+  public void redoMove() throws IllegalStateException {
+    Player player = delegate.getTurn();
+    delegate.redoMove();
+    moved(delegate.getMoveHistory()[moveCount], player);
+  }
+
+  @Override
+  public int[] getMoveHistory() {
+    return delegate.getMoveHistory();
+  }
+
+  @Override
+  public Player getTurn() {
+    return delegate.getTurn();
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return delegate.isGameOver();
+  }
+
+  @Override
+  public Player getWinner() {
+    return delegate.getWinner();
+  }
+
+  @Override
+  public void resetBoard() {
+    delegate.resetBoard();
+    moveCount = 0;
+    boardChanged();
+  }
+
+  @Override
+  public int getColumnHeight(int column) throws IllegalArgumentException {
+    return delegate.getColumnHeight(column);
+  }
+
+  @Override
+  public int getRows() {
+    return delegate.getRows();
+  }
+
+  @Override
+  public int getColumns() {
+    return delegate.getColumns();
+  }
+
+  @Override
+  public int getWinLength() {
+    return delegate.getWinLength();
+  }
+
+  @Override
+  public Player cellAt(int row, int column) throws IllegalArgumentException {
+    return delegate.cellAt(row, column);
+  }
+
+  @Override
+  public Player[][] getBoardState() {
+    return delegate.getBoardState();
+  }
+
+  @Override
+  public void renderBoard(Appendable out) throws IOException {
+    delegate.renderBoard(out);
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+
+  /**
+   * Tells the listeners about a disc that was just dropped.
+   *
+   * @param column the column played, starting at 1
+   * @param player the player who made the move
+   */
+  private void moved(int column, Player player) {
+    moveCount++;
+    MoveEvent event = new MoveEvent(moveCount, column, delegate.getColumnHeight(column) - 1,
+        player, delegate.isGameOver(), delegate.getWinner());
+    for (MoveListener listener : listeners) {
+      listener.onMove(event);
+    }
+  }
+
+  /**
+   * Tells the listeners the board has to be read again.
+   */
+  private void boardChanged() {
+    for (MoveListener listener : listeners) {
+      listener.onBoardChanged(this);
+    }
+  }
+}
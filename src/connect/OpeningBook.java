@@ -0,0 +1,142 @@
+package connect;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A precomputed table of the moves to play in the first plies of a game, stored in a file built
+ * by {@link OpeningBookGenerator}. A position and its mirror image share one entry, keyed by the
+ * smaller of their {@link PositionKey} keys, and the move is mirrored back when needed.
+ *
+ * <p>The file starts with a header of {@value #HEADER_SIZE} bytes: the magic number, the format
+ * version, the number of rows and columns, the number of plies covered and the number of
+ * entries. Then come the entries, one {@code long} each, holding the key in the upper 56 bits and
+ * the column to play, starting at 0, in the lower 8 bits, sorted by key. Keys have at most
+ * {@value #KEY_BITS} bits, so that the sign bit of an entry is never set and entries sort by key
+ * as signed numbers; boards whose keys need more, such as 6x8 and 7x7, have no book. The file is
+ * memory mapped, so opening a book reads nothing but the header and a lookup is a binary search
+ * over the mapped entries. A book can be shared by any number of threads.
+ */
+public class OpeningBook {
+  static final int MAGIC = 0x43344f42;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 32;
+  static final int KEY_BITS = 55;
+  static final int MOVE_BITS = 8;
+
+  private final LongBuffer entries;
+  private final int rows;
+  private final int columns;
+  private final int plies;
+
+  /**
+   * Constructs a new OpeningBook object by mapping the given file.
+   *
+   * @param file the opening book file
+   * @throws IllegalArgumentException if the file is not an opening book, is truncated or is for
+   *                                  a board too large for the book keys
+   * @throws IOException              if the file cannot be read
+   */
+  public OpeningBook(Path file) throws IllegalArgumentException, IOException {
+    MappedByteBuffer map;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (map.limit() < HEADER_SIZE || map.getInt() != MAGIC || map.getInt() != VERSION) {
+      throw new IllegalArgumentException("Not an opening book: " + file);
+    }
+    this.rows = map.getInt();
+    this.columns = map.getInt();
+    this.plies = map.getInt();
+    if (!PositionKey.fits(rows, columns, KEY_BITS)) {
+      throw new IllegalArgumentException("Board is too large for an opening book: " + file);
+    }
+    int count = map.getInt();
+    if (map.limit() < HEADER_SIZE + (long) count * Long.BYTES) {
+      throw new IllegalArgumentException("Opening book is truncated: " + file);
+    }
+    map.position(HEADER_SIZE);
+    this.entries = map.slice().asLongBuffer();
+    entries.limit(count);
+  }
+
+  /**
+   * Looks up the move to play in the position of a model.
+   *
+   * @param m a non-null Connect Four Model
+   * @return the column to play, numbered from 1 like in {@link ConnectFourModel#makeMove(int)},
+   *         or 0 if the position is not in the book, or the board has another size or another
+   *         win length than 4
+   * @throws IllegalArgumentException if the model is null
+   */
+  public int lookup(ConnectFourModel m) throws IllegalArgumentException {
+    if (m == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    if (m.getRows() != rows || m.getColumns() != columns || m.getWinLength() != 4
+        || m.isGameOver()) {
+      return 0;
+    }
+    long key = PositionKey.of(m);
+    long mirrored = PositionKey.mirror(key, rows, columns);
+    boolean flip = mirrored < key;
+    long canonical = flip ? mirrored : key;
+    int low = 0;
+    int high = entries.limit() - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      long entry = entries.get(mid);
+      long entryKey = entry >>> MOVE_BITS;
+      if (entryKey < canonical) {
+        low = mid + 1;
+      } else if (entryKey > canonical) {
+        high = mid - 1;
+      } else {
+        int column = (int) (entry & ((1 << MOVE_BITS) - 1));
+        return flip ? columns - column : column + 1;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Retrieves the number of positions in the book.
+   *
+   * @return the number of entries
+   */
+  public int getSize() {
+    return entries.limit();
+  }
+
+  /**
+   * Retrieves the number of rows of the board the book was built for.
+   *
+   * @return the number of rows
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Retrieves the number of columns of the board the book was built for.
+   *
+   * @return the number of columns
+   */
+  public int getColumns() {
+    return columns;
+  }
+
+  /**
+   * Retrieves the number of plies the book covers: every position reached in fewer moves is in
+   * the book.
+   *
+   * @return the number of plies
+   */
+  public int getPlies() {
+    return plies;
+  }
+}
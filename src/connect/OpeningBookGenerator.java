@@ -0,0 +1,124 @@
+package connect;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Builds an {@link OpeningBook} offline. Every position reached in fewer than the given number
+ * of plies is visited once, with a position and its mirror image counted as one, and the move
+ * chosen by a {@link MoveSearcher} is stored for it. Positions where the game is already over
+ * are left out.
+ */
+public class OpeningBookGenerator {
+  private final int rows;
+  private final int columns;
+  private final int plies;
+  private final MoveSearcher searcher;
+  private Set<Long> visited;
+  private long[] entries;
+  private int count;
+
+  /**
+   * Constructs a new OpeningBookGenerator object.
+   *
+   * @param rows     the number of rows of the board
+   * @param columns  the number of columns of the board
+   * @param plies    the number of plies to cover
+   * @param searcher chooses the move of every position
+   * @throws IllegalArgumentException if the board is smaller than 4x4 or too large for the book
+   *                                  keys, the number of plies is negative or the searcher is
+   *                                  null
+   */
+  public OpeningBookGenerator(int rows, int columns, int plies, MoveSearcher searcher)
+      throws IllegalArgumentException {
+    if (rows < 4 || columns < 4) {
+      throw new IllegalArgumentException("Board size must be at least 4x4");
+    }
+    if (!PositionKey.fits(rows, columns, OpeningBook.KEY_BITS)) {
+      throw new IllegalArgumentException("Board is too large for an opening book");
+    }
+    if (plies < 0) {
+      throw new IllegalArgumentException("Plies cannot be negative");
+    }
+    if (searcher == null) {
+      throw new IllegalArgumentException("Searcher cannot be null");
+    }
+    this.rows = rows;
+    this.columns = columns;
+    this.plies = plies;
+    this.searcher = searcher;
+  }
+
+  /**
+   * Builds the book and writes it to a file, replacing any existing file.
+   *
+   * @param file the file to write
+   * @return the number of positions in the book
+   * @throws IOException if the file cannot be written
+   */
+  public int generate(Path file) throws IOException {
+    visited = new HashSet<>();
+    entries = new long[1024];
+    count = 0;
+    visit(new ConnectFourBitboardModel(rows, columns));
+    Arrays.sort(entries, 0, count);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+          OpeningBook.HEADER_SIZE + (long) count * Long.BYTES);
+      out.putInt(OpeningBook.MAGIC);
+      out.putInt(OpeningBook.VERSION);
+      out.putInt(rows);
+      out.putInt(columns);
+      out.putInt(plies);
+      out.putInt(count);
+      out.position(OpeningBook.HEADER_SIZE);
+      for (int i = 0; i < count; i++) {
+        out.putLong(entries[i]);
+      }
+      out.force();
+    }
+    visited = null;
+    entries = null;
+    return count;
+  }
+
+  /**
+   * Adds a position and the positions that follow it to the book, unless it or its mirror image
+   * was already visited.
+   *
+   * @param m the model holding the position; it is left as it was found
+   */
+  private void visit(ConnectFourBitboardModel m) {
+    if (m.isGameOver() || m.getMoveCount() >= plies) {
+      return;
+    }
+    long key = PositionKey.of(m);
+    long mirrored = PositionKey.mirror(key, rows, columns);
+    boolean flip = mirrored < key;
+    long canonical = flip ? mirrored : key;
+    if (!visited.add(canonical)) {
+      return;
+    }
+    int column = searcher.findMove(m);
+    int stored = flip ? columns - column : column - 1;
+    if (count == entries.length) {
+      entries = Arrays.copyOf(entries, count * 2);
+    }
+    entries[count++] = canonical << OpeningBook.MOVE_BITS | stored;
+    for (int j = 0; j < columns; j++) {
+      if (m.canPlay(j)) {
+        m.play(j);
+        visit(m);
+        m.unplay(j);
+      }
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package connect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A computer player for Connect Four that searches on several threads at once (lazy SMP). Every
+ * thread runs the same iterative deepening search as {@link ConnectFourAI} on its own copy of
+ * the position, and all threads share one lock-free transposition table, so that the results
+ * found by one thread cut off the search of the others. Half of the helper threads start one ply
+ * deeper, which keeps them from searching the same positions in lockstep. The move played is the
+ * one of the thread that completed the deepest iteration.
+ */
+public class ParallelMoveSearcher implements MoveSearcher, AutoCloseable {
+  private final long timeBudgetNanos;
+  private final int maxDepth;
+  private final TranspositionTable table;
+  private final AtomicBoolean stop;
+  private final SearchWorker[] workers;
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructs a new ParallelMoveSearcher object that uses every available processor and thinks
+   * for one second per move.
+   */
+  public ParallelMoveSearcher() {
+    this(1000, TranspositionTable.MAX_DEPTH, 22, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructs a new ParallelMoveSearcher object with the specified limits.
+   *
+   * @param timeBudgetMillis the time to search for each move, in milliseconds
+   * @param maxDepth         the deepest the search may go, in plies
+   * @param tableSizeBits    the base-2 logarithm of the number of transposition table slots
+   * @param parallelism      the number of search threads
+   * @throws IllegalArgumentException if the budget, the depth or the parallelism is not
+   *                                  positive, or the table size is out of range
+   */
+  public ParallelMoveSearcher(long timeBudgetMillis, int maxDepth, int tableSizeBits,
+      int parallelism) throws IllegalArgumentException {
+    if (timeBudgetMillis <= 0) {
+      throw new IllegalArgumentException("Time budget must be positive");
+    }
+    if (maxDepth <= 0) {
+      throw new IllegalArgumentException("Depth must be positive");
+    }
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Parallelism must be positive");
+    }
+    this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+    this.maxDepth = Math.min(maxDepth, TranspositionTable.MAX_DEPTH);
+    this.table = new TranspositionTable(tableSizeBits);
+    this.stop = new AtomicBoolean(false);
+    this.workers = new SearchWorker[parallelism];
+    for (int i = 0; i < parallelism; i++) {
+      workers[i] = new SearchWorker(table, stop);
+    }
+    this.pool = new ForkJoinPool(parallelism);
+  }
+
+  @Override
+  public int findMove(ConnectFourModel m) throws IllegalArgumentException, IllegalStateException {
+    if (m == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    if (m.isGameOver()) {
+      throw new IllegalStateException("Game is over");
+    }
+    table.newSearch();
+    stop.set(false);
+    long deadline = System.nanoTime() + timeBudgetNanos;
+    List<Callable<Boolean>> tasks = new ArrayList<>();
+    for (int i = 0; i < workers.length; i++) {
+      SearchWorker worker = workers[i];
+      int firstDepth = 1 + i % 2;
+      worker.start(m, deadline);
+      tasks.add(() -> {
+        boolean finished = worker.iterate(firstDepth, maxDepth);
+        if (finished) {
+          stop.set(true);
+        }
+        return finished;
+      });
+    }
+    try {
+      for (Future<Boolean> result : pool.invokeAll(tasks)) {
+        result.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Search failed", e.getCause());
+    }
+
+    SearchWorker best = workers[0];
+    for (SearchWorker worker : workers) {
+      if (worker.getCompletedDepth() > best.getCompletedDepth()) {
+        best = worker;
+      }
+    }
+    return best.getBestMove() + 1;
+  }
+
+  /**
+   * Retrieves the number of positions visited by all threads during the last search.
+   *
+   * @return the number of nodes
+   */
+  public long getNodeCount() {
+    long nodes = 0;
+    for (SearchWorker worker : workers) {
+      nodes += worker.getNodes();
+    }
+    return nodes;
+  }
+
+  /**
+   * Stops the search threads. The searcher cannot be used afterwards.
+   */
+  @Override
+  public void close() {
+    pool.shutdownNow();
+  }
+}
@@ -0,0 +1,68 @@
+package connect;
+
+/**
+ * Computes exact keys of Connect Four positions for boards small enough to fit in a
+ * {@code long}. Like the bitboard model, the cells are laid out column by column with one extra
+ * bit on top of every column: a column's bits hold a 1 for every RED disc, and a marker bit just
+ * above its highest disc. The key therefore tells apart every position, unlike a Zobrist hash,
+ * and reversing the order of the columns gives the key of the left/right mirror image.
+ */
+final class PositionKey {
+
+  /**
+   * Prevents instantiation; this class only has static methods.
+   */
+  private PositionKey() {
+  }
+
+  /**
+   * Checks whether the keys of a board of the given size fit in the given number of bits.
+   *
+   * @param rows    the number of rows
+   * @param columns the number of columns
+   * @param bits    the number of bits available
+   * @return true if every key of the board fits
+   */
+  static boolean fits(int rows, int columns, int bits) {
+    return (long) columns * (rows + 1) <= bits;
+  }
+
+  /**
+   * Computes the key of the position of a model.
+   *
+   * @param m a Connect Four Model whose board fits in 64 bits
+   * @return the key of the position
+   */
+  static long of(ConnectFourModel m) {
+    int height = m.getRows() + 1;
+    long key = 0L;
+    for (int j = 0; j < m.getColumns(); j++) {
+      int discs = m.getColumnHeight(j + 1);
+      for (int i = 0; i < discs; i++) {
+        if (m.cellAt(i, j) == Player.RED) {
+          key |= 1L << (j * height + i);
+        }
+      }
+      key |= 1L << (j * height + discs);
+    }
+    return key;
+  }
+
+  /**
+   * Computes the key of the mirror image of a position.
+   *
+   * @param key     the key of the position
+   * @param rows    the number of rows
+   * @param columns the number of columns
+   * @return the key of the position with the columns in reverse order
+   */
+  static long mirror(long key, int rows, int columns) {
+    int height = rows + 1;
+    long column = (1L << height) - 1;
+    long mirrored = 0L;
+    for (int j = 0; j < columns; j++) {
+      mirrored |= ((key >>> (j * height)) & column) << ((columns - 1 - j) * height);
+    }
+    return mirrored;
+  }
+}
@@ -0,0 +1,49 @@
+package connect;
+
+import java.util.Random;
+
+/**
+ * A computer player for Connect Four that plays a uniformly random legal column. It is meant for
+ * simulations and is not safe to share between threads.
+ */
+public class RandomMoveSearcher implements MoveSearcher {
+  private final Random random;
+  private int[] legal;
+
+  /**
+   * Constructs a new RandomMoveSearcher object with a random seed.
+   */
+  public RandomMoveSearcher() {
+    this.random = new Random();
+  }
+
+  /**
+   * Constructs a new RandomMoveSearcher object with the specified seed, so that its moves can
+   * be reproduced.
+   *
+   * @param seed the seed of the random number generator
+   */
+  public RandomMoveSearcher(long seed) {
+    this.random = new Random(seed);
+  }
+
+  @Override
+  public int findMove(ConnectFourModel m) throws IllegalArgumentException, IllegalStateException {
+    if (m == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    if (m.isGameOver()) {
+      throw new IllegalStateException("Game is over");
+    }
+    if (legal == null || legal.length != m.getColumns()) {
+      legal = new int[m.getColumns()];
+    }
+    int count = 0;
+    for (int column = 1; column <= m.getColumns(); column++) {
+      if (m.getColumnHeight(column) < m.getRows()) {
+        legal[count++] = column;
+      }
+    }
+    return legal[random.nextInt(count)];
+  }
+}
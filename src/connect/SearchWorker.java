@@ -0,0 +1,291 @@
+package connect;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One thread of a Connect Four move search. It searches the game tree with negamax and
+ * alpha-beta pruning on its own bitboard copy of the position, trying the best move remembered
+ * in a transposition table first and then the columns from the centre outwards, and deepens one
+ * ply at a time until it runs out of time or is told to stop. Several workers may share one
+ * transposition table. Positions that are not decided within the search horizon are scored by
+ * how central each player's discs are, which depends on the position alone, so that a score
+ * stored in the table by an earlier search from another root is still right. The table key
+ * includes the board size and win length as well as the discs, so positions of different games
+ * never share an entry.
+ */
+class SearchWorker {
+  static final int WIN = 1 << 22;
+  private static final int CHECK_INTERVAL = 1024;
+
+  private final TranspositionTable table;
+  private final AtomicBoolean stop;
+  private ConnectFourBitboardModel board;
+  private int[] order;
+  private int[] weights;
+  private int area;
+  private int rootEval;
+  private long sizeKey;
+  private int rootBest;
+  private int bestMove;
+  private int completedDepth;
+  private long deadline;
+  private long nodes;
+  private boolean aborted;
+
+  /**
+   * Constructs a new SearchWorker object.
+   *
+   * @param table the transposition table, possibly shared with other workers
+   * @param stop  a flag that tells the worker to stop searching as soon as possible
+   */
+  SearchWorker(TranspositionTable table, AtomicBoolean stop) {
+    this.table = table;
+    this.stop = stop;
+  }
+
+  /**
+   * Prepares the worker to search a position.
+   *
+   * @param m        the position to search, which is copied and not modified
+   * @param deadline the {@link System#nanoTime()} at which the search must stop
+   */
+  void start(ConnectFourModel m, long deadline) {
+    board = ConnectFourBitboardModel.copyOf(m);
+    prepare(m.getColumns());
+    area = m.getRows() * m.getColumns();
+    rootEval = evaluate(m);
+    sizeKey = sizeKey(m.getRows(), m.getColumns(), m.getWinLength());
+    this.deadline = deadline;
+    nodes = 0;
+    aborted = false;
+    completedDepth = 0;
+    bestMove = -1;
+    for (int c : order) {
+      if (board.canPlay(c)) {
+        bestMove = c;
+        break;
+      }
+    }
+  }
+
+  /**
+   * Searches the position with iterative deepening.
+   *
+   * @param firstDepth the depth of the first iteration
+   * @param maxDepth   the depth of the last iteration
+   * @return true if the search ended with a proven win or loss, or at the last depth
+   */
+  boolean iterate(int firstDepth, int maxDepth) {
+    int lastDepth = Math.min(maxDepth, area - board.getMoveCount());
+    for (int depth = firstDepth; depth <= lastDepth; depth++) {
+      rootBest = -1;
+      int score = negamax(depth, -WIN, WIN, 0, rootEval);
+      if (aborted) {
+        return false;
+      }
+      bestMove = rootBest;
+      completedDepth = depth;
+      if (Math.abs(score) > WIN / 2) {
+        return true;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Retrieves the best move of the deepest completed iteration, or the most central legal move
+   * if no iteration completed.
+   *
+   * @return the best move, starting at 0
+   */
+  int getBestMove() {
+    return bestMove;
+  }
+
+  /**
+   * Retrieves the depth of the deepest completed iteration.
+   *
+   * @return the completed depth, or 0 if no iteration completed
+   */
+  int getCompletedDepth() {
+    return completedDepth;
+  }
+
+  /**
+   * Retrieves the number of positions visited by the last search.
+   *
+   * @return the number of nodes
+   */
+  long getNodes() {
+    return nodes;
+  }
+
+  /**
+   * Computes the centre-first move order and the centre weights for the given board width.
+   *
+   * @param columns the number of columns
+   */
+  private void prepare(int columns) {
+    if (order != null && order.length == columns) {
+      return;
+    }
+    order = new int[columns];
+    weights = new int[columns];
+    for (int i = 0; i < columns; i++) {
+      order[i] = columns / 2 + (i % 2 == 0 ? i / 2 : -(i + 1) / 2);
+      weights[i] = Math.min(i, columns - 1 - i) + 1;
+    }
+  }
+
+  /**
+   * Computes the centre weight of the discs of the player to move minus that of the opponent's.
+   *
+   * @param m the position
+   * @return the static score of the position for the player to move
+   */
+  private int evaluate(ConnectFourModel m) {
+    Player turn = m.getTurn();
+    int eval = 0;
+    for (int column = 0; column < weights.length; column++) {
+      int height = m.getColumnHeight(column + 1);
+      for (int row = 0; row < height; row++) {
+        eval += m.cellAt(row, column) == turn ? weights[column] : -weights[column];
+      }
+    }
+    return eval;
+  }
+
+  /**
+   * Computes the value mixed into the Zobrist hash of every position, derived from the board
+   * size and win length with a SplitMix64 mixing function.
+   *
+   * @param rows      the number of rows
+   * @param columns   the number of columns
+   * @param winLength the number of discs in a row that wins
+   * @return the value to xor into the position hash
+   */
+  private static long sizeKey(int rows, int columns, int winLength) {
+    long z = (((long) rows << 40) ^ ((long) columns << 16) ^ winLength) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Searches the current position.
+   *
+   * @param depth the remaining depth, in plies
+   * @param alpha the score the player to move is already guaranteed
+   * @param beta  the score the opponent is already guaranteed, negated
+   * @param ply   the distance from the root, in plies
+   * @param eval  the static score of the position for the player to move
+   * @return the score of the position for the player to move
+   */
+  private int negamax(int depth, int alpha, int beta, int ply, int eval) {
+    if (++nodes % CHECK_INTERVAL == 0 && (stop.get() || System.nanoTime() > deadline)) {
+      aborted = true;
+    }
+    if (aborted) {
+      return 0;
+    }
+    if (depth == 0) {
+      return eval;
+    }
+    int alphaOrig = alpha;
+    long key = board.getKey() ^ sizeKey;
+    long entry = table.probe(key);
+    int ttMove = -1;
+    if (entry != 0L) {
+      ttMove = TranspositionTable.move(entry);
+      if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+        int score = fromTable(TranspositionTable.score(entry), ply);
+        int flag = TranspositionTable.flag(entry);
+        if (flag == TranspositionTable.EXACT) {
+          return score;
+        } else if (flag == TranspositionTable.LOWER) {
+          alpha = Math.max(alpha, score);
+        } else {
+          beta = Math.min(beta, score);
+        }
+        if (alpha >= beta) {
+          return score;
+        }
+      }
+    }
+
+    int best = -WIN - 1;
+    int bestMove = -1;
+    for (int i = -1; i < order.length; i++) {
+      int c = i < 0 ? ttMove : order[i];
+      if (c < 0 || c >= order.length || (i >= 0 && c == ttMove) || !board.canPlay(c)) {
+        continue;
+      }
+      board.play(c);
+      int score;
+      if (board.getWinner() != null) {
+        score = WIN - ply - 1;
+      } else if (board.getMoveCount() == area) {
+        score = 0;
+      } else {
+        score = -negamax(depth - 1, -beta, -alpha, ply + 1, -(eval + weights[c]));
+      }
+      board.unplay(c);
+      if (aborted) {
+        return 0;
+      }
+      if (score > best) {
+        best = score;
+        bestMove = c;
+        if (ply == 0) {
+          rootBest = c;
+        }
+      }
+      alpha = Math.max(alpha, score);
+      if (alpha >= beta) {
+        break;
+      }
+    }
+
+    int flag = TranspositionTable.EXACT;
+    if (best <= alphaOrig) {
+      flag = TranspositionTable.UPPER;
+    } else if (best >= beta) {
+      flag = TranspositionTable.LOWER;
+    }
+    table.store(key, toTable(best, ply), flag, depth, bestMove);
+    return best;
+  }
+
+  /**
+   * Converts a score relative to the root into one relative to the current node, so that wins
+   * stored in the table keep the right distance when the position is reached at another ply.
+   *
+   * @param score the score relative to the root
+   * @param ply   the distance of the node from the root
+   * @return the score to store
+   */
+  private static int toTable(int score, int ply) {
+    if (score > WIN / 2) {
+      return score + ply;
+    } else if (score < -WIN / 2) {
+      return score - ply;
+    }
+    return score;
+  }
+
+  /**
+   * Converts a score read from the table back into one relative to the root.
+   *
+   * @param score the stored score
+   * @param ply   the distance of the node from the root
+   * @return the score relative to the root
+   */
+  private static int fromTable(int score, int ply) {
+    if (score > WIN / 2) {
+      return score - ply;
+    } else if (score < -WIN / 2) {
+      return score + ply;
+    }
+    return score;
+  }
+}
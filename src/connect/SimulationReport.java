@@ -0,0 +1,132 @@
+package connect;
+
+/**
+ * The results of a batch of games played by a {@link GameSimulator}.
+ */
+public class SimulationReport {
+  private final long games;
+  private final long moves;
+  private final long redWins;
+  private final long yellowWins;
+  private final long draws;
+  private final long elapsedNanos;
+
+  /**
+   * Constructs a new SimulationReport object.
+   *
+   * @param games        the number of games played
+   * @param moves        the number of moves made in all games
+   * @param redWins      the number of games won by RED
+   * @param yellowWins   the number of games won by YELLOW
+   * @param draws        the number of tied games
+   * @param elapsedNanos the wall-clock time the batch took, in nanoseconds
+   */
+  public SimulationReport(long games, long moves, long redWins, long yellowWins, long draws,
+      long elapsedNanos) {
+    this.games = games;
+    this.moves = moves;
+    this.redWins = redWins;
+    this.yellowWins = yellowWins;
+    this.draws = draws;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Retrieves the number of games played.
+   *
+   * @return the number of games
+   */
+  public long getGames() {
+    return games;
+  }
+
+  /**
+   * Retrieves the number of moves made in all games.
+   *
+   * @return the number of moves
+   */
+  public long getMoves() {
+    return moves;
+  }
+
+  /**
+   * Retrieves the number of games won by RED.
+   *
+   * @return the number of RED wins
+   */
+  public long getRedWins() {
+    return redWins;
+  }
+
+  /**
+   * Retrieves the number of games won by YELLOW.
+   *
+   * @return the number of YELLOW wins
+   */
+  public long getYellowWins() {
+    return yellowWins;
+  }
+
+  /**
+   * Retrieves the number of tied games.
+   *
+   * @return the number of draws
+   */
+  public long getDraws() {
+    return draws;
+  }
+
+  /**
+   * Retrieves the wall-clock time the batch took.
+   *
+   * @return the elapsed time, in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Computes the number of games played per second.
+   *
+   * @return the game throughput
+   */
+  public double getGamesPerSecond() {
+    return perSecond(games);
+  }
+
+  /**
+   * Computes the number of moves made per second.
+   *
+   * @return the move throughput
+   */
+  public double getMovesPerSecond() {
+    return perSecond(moves);
+  }
+
+  /**
+   * Computes the average number of moves in a game.
+   *
+   * @return the average game length, or 0 if no game was played
+   */
+  public double getAverageGameLength() {
+    return games == 0 ? 0 : (double) moves / games;
+  }
+
+  /**
+   * Divides a count by the elapsed time.
+   *
+   * @param count the count
+   * @return the count per second
+   */
+  private double perSecond(long count) {
+    return elapsedNanos == 0 ? 0 : count * 1e9 / elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d games in %.3f s (%.0f games/s, %.0f moves/s), "
+            + "RED %d, YELLOW %d, ties %d, average length %.2f",
+        games, elapsedNanos / 1e9, getGamesPerSecond(), getMovesPerSecond(),
+        redWins, yellowWins, draws, getAverageGameLength());
+  }
+}
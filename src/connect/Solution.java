@@ -0,0 +1,61 @@
+package connect;
+
+/**
+ * The exact game-theoretic value of a position, as found by {@link ConnectFourSolver}, with a
+ * move that achieves it.
+ */
+public class Solution {
+  private final int score;
+  private final int bestMove;
+  private final Player winner;
+
+  /**
+   * Constructs a new Solution object.
+   *
+   * @param score    the score of the position for the player to move
+   * @param bestMove a column that achieves the score, numbered from 1
+   * @param winner   the player who wins with perfect play, or null for a tie
+   */
+  public Solution(int score, int bestMove, Player winner) {
+    this.score = score;
+    this.bestMove = bestMove;
+    this.winner = winner;
+  }
+
+  /**
+   * Retrieves the score of the position for the player to move. It is 0 if perfect play leads
+   * to a tie, positive if the player to move can force a win and negative if the opponent can.
+   * The sooner the win, the larger the score: a player who wins with their last disc among
+   * {@code n} discs still to play scores 1, and one who wins with their first disc scores
+   * {@code (n + 1) / 2}.
+   *
+   * @return the score
+   */
+  public int getScore() {
+    return score;
+  }
+
+  /**
+   * Retrieves a move that achieves the score: the quickest win, or the slowest loss.
+   *
+   * @return the column to play, numbered from 1 like in {@link ConnectFourModel#makeMove(int)}
+   */
+  public int getBestMove() {
+    return bestMove;
+  }
+
+  /**
+   * Retrieves the player who wins with perfect play from both sides.
+   *
+   * @return the winner, or null if the game ends in a tie
+   */
+  public Player getWinner() {
+    return winner;
+  }
+
+  @Override
+  public String toString() {
+    return "score " + score + ", best move " + bestMove + ", winner "
+        + (winner == null ? "none" : winner);
+  }
+}
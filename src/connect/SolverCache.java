@@ -0,0 +1,221 @@
+package connect;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A bounded map from position keys to solved values, used by {@link ConnectFourSolver} to
+ * remember the positions it has solved. When the cache is full, the entry to replace is chosen
+ * with the CLOCK algorithm: a hand sweeps over the entries, clearing the referenced flag of each
+ * entry that was used since the hand last passed it, and replaces the first entry that was not.
+ * This approximates least-recently-used eviction without moving entries around on every hit.
+ * The entries live in primitive arrays, found through an open-addressing index.
+ *
+ * <p>The cache can be saved to a file and loaded again. The file has a header of
+ * {@value #HEADER_SIZE} bytes (the magic number, the format version, the number of rows and
+ * columns of the board and the number of entries) followed by the entries, each a {@code long}
+ * key and an {@code int} value.
+ */
+class SolverCache {
+  static final int MISS = Integer.MIN_VALUE;
+
+  private static final int MAGIC = 0x43345343;
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 24;
+  private static final int ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+
+  private final long[] keys;
+  private final int[] values;
+  private final boolean[] referenced;
+  private final int[] index;
+  private final int indexMask;
+  private int size;
+  private int hand;
+
+  /**
+   * Constructs a new empty SolverCache object.
+   *
+   * @param capacity the largest number of entries
+   * @throws IllegalArgumentException if the capacity is not between 1 and 2^28
+   */
+  SolverCache(int capacity) throws IllegalArgumentException {
+    if (capacity <= 0 || capacity > 1 << 28) {
+      throw new IllegalArgumentException("Cache capacity must be between 1 and 2^28");
+    }
+    this.keys = new long[capacity];
+    this.values = new int[capacity];
+    this.referenced = new boolean[capacity];
+    this.index = new int[Integer.highestOneBit(capacity) * 4];
+    this.indexMask = index.length - 1;
+  }
+
+  /**
+   * Looks up a position and marks its entry as used.
+   *
+   * @param key the key of the position
+   * @return the stored value, or {@link #MISS} if the position is not in the cache
+   */
+  int get(long key) {
+    int slot = find(key);
+    if (slot < 0) {
+      return MISS;
+    }
+    referenced[slot] = true;
+    return values[slot];
+  }
+
+  /**
+   * Stores the value of a position, replacing an entry chosen by the clock hand if the cache is
+   * full.
+   *
+   * @param key   the key of the position
+   * @param value the value to store
+   */
+  void put(long key, int value) {
+    int slot = find(key);
+    if (slot < 0) {
+      if (size < keys.length) {
+        slot = size++;
+      } else {
+        slot = evict();
+      }
+      keys[slot] = key;
+      int i = home(key);
+      while (index[i] != 0) {
+        i = (i + 1) & indexMask;
+      }
+      index[i] = slot + 1;
+    }
+    values[slot] = value;
+    referenced[slot] = true;
+  }
+
+  /**
+   * Retrieves the number of entries in the cache.
+   *
+   * @return the number of entries
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Writes every entry to a file, replacing any existing file.
+   *
+   * @param file    the file to write
+   * @param rows    the number of rows of the board the keys belong to
+   * @param columns the number of columns of the board the keys belong to
+   * @throws IOException if the file cannot be written
+   */
+  void save(Path file, int rows, int columns) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+          HEADER_SIZE + (long) size * ENTRY_SIZE);
+      out.putInt(MAGIC);
+      out.putInt(VERSION);
+      out.putInt(rows);
+      out.putInt(columns);
+      out.putInt(size);
+      out.position(HEADER_SIZE);
+      for (int i = 0; i < size; i++) {
+        out.putLong(keys[i]);
+        out.putInt(values[i]);
+      }
+      out.force();
+    }
+  }
+
+  /**
+   * Adds the entries of a file written by {@link #save(Path, int, int)}. If they do not all fit,
+   * the ones loaded last are kept.
+   *
+   * @param file    the file to read
+   * @param rows    the number of rows of the board the keys must belong to
+   * @param columns the number of columns of the board the keys must belong to
+   * @throws IllegalArgumentException if the file is not a solver cache, is truncated or was
+   *                                  saved for another board size
+   * @throws IOException              if the file cannot be read
+   */
+  void load(Path file, int rows, int columns) throws IllegalArgumentException, IOException {
+    MappedByteBuffer in;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (in.limit() < HEADER_SIZE || in.getInt() != MAGIC || in.getInt() != VERSION) {
+      throw new IllegalArgumentException("Not a solver cache: " + file);
+    }
+    if (in.getInt() != rows || in.getInt() != columns) {
+      throw new IllegalArgumentException("Solver cache is for another board size: " + file);
+    }
+    int count = in.getInt();
+    if (in.limit() < HEADER_SIZE + (long) count * ENTRY_SIZE) {
+      throw new IllegalArgumentException("Solver cache is truncated: " + file);
+    }
+    in.position(HEADER_SIZE);
+    for (int i = 0; i < count; i++) {
+      long key = in.getLong();
+      put(key, in.getInt());
+    }
+  }
+
+  /**
+   * Finds the entry of a key.
+   *
+   * @param key the key
+   * @return the slot of the entry, or -1 if the key is not in the cache
+   */
+  private int find(long key) {
+    for (int i = home(key); index[i] != 0; i = (i + 1) & indexMask) {
+      int slot = index[i] - 1;
+      if (keys[slot] == key) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Advances the clock hand to the first entry not used since the hand last passed it, and
+   * removes that entry from the index.
+   *
+   * @return the slot of the removed entry
+   */
+  private int evict() {
+    while (referenced[hand]) {
+      referenced[hand] = false;
+      hand = (hand + 1) % keys.length;
+    }
+    int slot = hand;
+    hand = (hand + 1) % keys.length;
+    int i = home(keys[slot]);
+    while (index[i] != slot + 1) {
+      i = (i + 1) & indexMask;
+    }
+    index[i] = 0;
+    // shift back the entries after the hole that would no longer be found past it
+    for (int j = (i + 1) & indexMask; index[j] != 0; j = (j + 1) & indexMask) {
+      int h = home(keys[index[j] - 1]);
+      if (((j - h) & indexMask) >= ((j - i) & indexMask)) {
+        index[i] = index[j];
+        index[j] = 0;
+        i = j;
+      }
+    }
+    return slot;
+  }
+
+  /**
+   * Computes the index position where the search for a key starts.
+   *
+   * @param key the key
+   * @return the first index position to look at
+   */
+  private int home(long key) {
+    return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & indexMask;
+  }
+}
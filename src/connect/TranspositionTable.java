@@ -0,0 +1,148 @@
+package connect;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size hash table of search results keyed by the Zobrist hash of a position. Each slot
+ * keeps the full key, so that a lookup can tell a real hit from a collision on the slot index,
+ * and a packed value holding the score, bound type, search depth, best move and the age of the
+ * search that stored it. A new result replaces the stored one when the stored one was written by
+ * an older search or was searched less deeply.
+ *
+ * <p>The table can be shared by several search threads without locking. The key is stored
+ * xor-ed with the value, so a slot whose key and value were written by two different threads
+ * at the same time no longer matches its key and simply reads as a miss.
+ */
+class TranspositionTable {
+  static final int EXACT = 1;
+  static final int LOWER = 2;
+  static final int UPPER = 3;
+
+  private static final int SCORE_BITS = 24;
+  private static final int DEPTH_BITS = 12;
+  private static final int MOVE_BITS = 12;
+  private static final int FLAG_BITS = 2;
+  private static final int DEPTH_SHIFT = SCORE_BITS;
+  private static final int MOVE_SHIFT = DEPTH_SHIFT + DEPTH_BITS;
+  private static final int FLAG_SHIFT = MOVE_SHIFT + MOVE_BITS;
+  private static final int AGE_SHIFT = FLAG_SHIFT + FLAG_BITS;
+  static final int MAX_DEPTH = (1 << DEPTH_BITS) - 1;
+
+  private final AtomicLongArray keys;
+  private final AtomicLongArray values;
+  private final int mask;
+  private volatile int age;
+
+  /**
+   * Constructs a new TranspositionTable object with {@code 2^sizeBits} slots.
+   *
+   * @param sizeBits the base-2 logarithm of the number of slots
+   * @throws IllegalArgumentException if the size is not between 1 and 2^28 slots
+   */
+  TranspositionTable(int sizeBits) throws IllegalArgumentException {
+    if (sizeBits < 0 || sizeBits > 28) {
+      throw new IllegalArgumentException("Table size must be between 2^0 and 2^28");
+    }
+    this.keys = new AtomicLongArray(1 << sizeBits);
+    this.values = new AtomicLongArray(1 << sizeBits);
+    this.mask = (1 << sizeBits) - 1;
+    this.age = 0;
+  }
+
+  /**
+   * Starts a new search. Entries stored by earlier searches become the first to be replaced.
+   */
+  void newSearch() {
+    age = (age + 1) & 0xFF;
+  }
+
+  /**
+   * Looks up a position.
+   *
+   * @param key the Zobrist hash of the position
+   * @return the packed entry, or 0 if the position is not in the table
+   */
+  long probe(long key) {
+    int slot = (int) key & mask;
+    long value = values.getOpaque(slot);
+    if ((keys.getOpaque(slot) ^ value) == key) {
+      return value;
+    }
+    return 0L;
+  }
+
+  /**
+   * Stores the result of searching a position, following the replacement policy.
+   *
+   * @param key   the Zobrist hash of the position
+   * @param score the score of the position for the player to move
+   * @param flag  {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+   * @param depth the depth the position was searched to
+   * @param move  the best move found, starting at 0
+   */
+  void store(long key, int score, int flag, int depth, int move) {
+    int slot = (int) key & mask;
+    long old = values.getOpaque(slot);
+    if (old != 0L && (keys.getOpaque(slot) ^ old) != key && age(old) == age
+        && depth(old) > depth) {
+      return;
+    }
+    long value = (score & ((1L << SCORE_BITS) - 1))
+        | ((long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT)
+        | ((long) (move & ((1 << MOVE_BITS) - 1)) << MOVE_SHIFT)
+        | ((long) flag << FLAG_SHIFT)
+        | ((long) age << AGE_SHIFT);
+    keys.setOpaque(slot, key ^ value);
+    values.setOpaque(slot, value);
+  }
+
+  /**
+   * Extracts the score from a packed entry.
+   *
+   * @param entry the entry returned by {@link #probe(long)}
+   * @return the stored score
+   */
+  static int score(long entry) {
+    return (int) ((entry << (64 - SCORE_BITS)) >> (64 - SCORE_BITS));
+  }
+
+  /**
+   * Extracts the search depth from a packed entry.
+   *
+   * @param entry the entry returned by {@link #probe(long)}
+   * @return the stored depth
+   */
+  static int depth(long entry) {
+    return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+  }
+
+  /**
+   * Extracts the best move from a packed entry.
+   *
+   * @param entry the entry returned by {@link #probe(long)}
+   * @return the stored move, starting at 0
+   */
+  static int move(long entry) {
+    return (int) (entry >>> MOVE_SHIFT) & ((1 << MOVE_BITS) - 1);
+  }
+
+  /**
+   * Extracts the bound type from a packed entry.
+   *
+   * @param entry the entry returned by {@link #probe(long)}
+   * @return {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+   */
+  static int flag(long entry) {
+    return (int) (entry >>> FLAG_SHIFT) & ((1 << FLAG_BITS) - 1);
+  }
+
+  /**
+   * Extracts the search age from a packed entry.
+   *
+   * @param entry the packed entry
+   * @return the age of the search that stored it
+   */
+  private static int age(long entry) {
+    return (int) (entry >>> AGE_SHIFT) & 0xFF;
+  }
+}
@@ -0,0 +1,60 @@
+package connect;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates executors that start one virtual thread per task when the running Java version has
+ * virtual threads (Java 21 and later). The code is compiled against older versions too, so the
+ * factory method is looked up by reflection, and a cached pool of platform threads is used when
+ * it is not there.
+ */
+public final class VirtualThreads {
+  private static final Method FACTORY = lookUpFactory();
+
+  /**
+   * Prevents instantiation; this class only has static methods.
+   */
+  private VirtualThreads() {
+  }
+
+  /**
+   * Checks whether the running Java version has virtual threads.
+   *
+   * @return true if {@link #newPerTaskExecutor()} starts virtual threads
+   */
+  public static boolean isAvailable() {
+    return FACTORY != null;
+  }
+
+  /**
+   * Creates an executor that runs every task on a new virtual thread, or on a cached platform
+   * thread if virtual threads are not available.
+   *
+   * @return the executor
+   */
+  public static ExecutorService newPerTaskExecutor() {
+    if (FACTORY != null) {
+      try {
+        return (ExecutorService) FACTORY.invoke(null);
+      } catch (ReflectiveOperationException e) {
+        // fall through to platform threads
+      }
+    }
+    return Executors.newCachedThreadPool();
+  }
+
+  /**
+   * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()}.
+   *
+   * @return the method, or null if it does not exist
+   */
+  private static Method lookUpFactory() {
+    try {
+      return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,147 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import connect.BoardSnapshot;
+import connect.ConcurrentConnectFourModel;
+import connect.ConnectFourModelImpl;
+import connect.Player;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+/**
+ * This is the test for the ConcurrentConnectFourModel class and its snapshots.
+ */
+public class ConcurrentConnectFourModelTest {
+
+  /**
+   * Test every change publishes a new version and old snapshots keep their state.
+   */
+  @Test
+  public void testSnapshotsAreImmutable() {
+    ConcurrentConnectFourModel m = new ConcurrentConnectFourModel(new ConnectFourModelImpl());
+    BoardSnapshot empty = m.getSnapshot();
+    assertEquals(0, empty.getVersion());
+    m.makeMove(4);
+    BoardSnapshot first = m.getSnapshot();
+    m.makeMove(4);
+    m.undoMove();
+    m.makeMove(3);
+    assertEquals(4, m.getVersion());
+    assertNull(empty.cellAt(0, 3));
+    assertEquals(Player.RED, first.cellAt(0, 3));
+    assertEquals(1, first.getMoveCount());
+    assertArrayEquals(new int[] {4}, first.getMoveHistory());
+    assertEquals(Player.YELLOW, first.getTurn());
+    assertArrayEquals(new int[] {4, 3}, m.getMoveHistory());
+    assertEquals(Player.YELLOW, m.cellAt(0, 2));
+    assertNull(m.cellAt(1, 3));
+  }
+
+  /**
+   * Test a spectator gets only the moves since the version it has seen, and is told to read
+   * the whole snapshot again once moves are taken back.
+   */
+  @Test
+  public void testMovesSince() {
+    ConcurrentConnectFourModel m = new ConcurrentConnectFourModel(new ConnectFourModelImpl());
+    for (int column : new int[] {4, 4, 3, 5, 2}) {
+      m.makeMove(column);
+    }
+    assertArrayEquals(new int[] {4, 4, 3, 5, 2}, m.getMovesSince(0));
+    assertArrayEquals(new int[] {5, 2}, m.getMovesSince(3));
+    assertArrayEquals(new int[0], m.getMovesSince(5));
+    m.undoMove();
+    assertNull(m.getMovesSince(5));
+    assertArrayEquals(new int[0], m.getMovesSince(6));
+    m.redoMove();
+    m.makeMove(1);
+    assertArrayEquals(new int[] {2, 1}, m.getMovesSince(6));
+    m.resetBoard();
+    assertNull(m.getMovesSince(6));
+    assertEquals(0, m.getSnapshot().getMoveCount());
+  }
+
+  /**
+   * Test a version that has not been published is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testMovesSinceFutureVersion() {
+    new ConcurrentConnectFourModel(new ConnectFourModelImpl()).getMovesSince(1);
+  }
+
+  /**
+   * Test spectators replaying the moves since the last version they saw always end up with the
+   * board of the snapshot they read, while a player keeps moving.
+   */
+  @Test
+  public void testSpectatorsFollowLiveGame() throws InterruptedException {
+    ConcurrentConnectFourModel m = new ConcurrentConnectFourModel(new ConnectFourModelImpl());
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread[] spectators = new Thread[3];
+    for (int t = 0; t < spectators.length; t++) {
+      spectators[t] = new Thread(() -> {
+        try {
+          BoardSnapshot seen = m.getSnapshot();
+          ConnectFourModelImpl replay = replay(seen.getMoveHistory());
+          while (!done.get()) {
+            BoardSnapshot latest = m.getSnapshot();
+            int[] moves = latest.getMovesSince(seen.getVersion());
+            if (moves == null) {
+              replay = replay(latest.getMoveHistory());
+            } else {
+              for (int column : moves) {
+                replay.makeMove(column);
+              }
+            }
+            assertEquals(latest.toString(), replay.toString());
+            assertEquals(latest.getWinner(), replay.getWinner());
+            seen = latest;
+          }
+        } catch (Throwable e) {
+          failure.compareAndSet(null, e);
+        }
+      });
+      spectators[t].start();
+    }
+    Random random = new Random(5004);
+    for (int game = 0; game < 300; game++) {
+      while (!m.isGameOver()) {
+        int column = 1 + random.nextInt(7);
+        if (m.getColumnHeight(column) < 6) {
+          m.makeMove(column);
+        }
+        if (random.nextInt(10) == 0) {
+          m.undoMove();
+        }
+      }
+      m.resetBoard();
+    }
+    done.set(true);
+    for (Thread spectator : spectators) {
+      spectator.join();
+    }
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+    assertTrue(m.getVersion() > 300);
+  }
+
+  /**
+   * Replays the given moves on a new model.
+   *
+   * @param moves the columns, starting at 1
+   * @return the model
+   */
+  private static ConnectFourModelImpl replay(int[] moves) {
+    ConnectFourModelImpl m = new ConnectFourModelImpl();
+    for (int column : moves) {
+      m.makeMove(column);
+    }
+    return m;
+  }
+}
@@ -0,0 +1,110 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import connect.ConnectFourAI;
+import connect.ConnectFourConsoleController;
+import connect.ConnectFourModel;
+import connect.ConnectFourModelImpl;
+import connect.ConnectFourView;
+import connect.MoveSearcher;
+import connect.ParallelMoveSearcher;
+import connect.Player;
+import java.io.StringReader;
+import org.junit.Test;
+
+/**
+ * This is the test for the ConnectFourAI class.
+ */
+public class ConnectFourAITest {
+
+  /**
+   * Creates a model with the given columns already played.
+   *
+   * @param moves the columns, starting at 1
+   * @return the model
+   */
+  private ConnectFourModel position(int... moves) {
+    ConnectFourModel m = new ConnectFourModelImpl();
+    for (int move : moves) {
+      m.makeMove(move);
+    }
+    return m;
+  }
+
+  /**
+   * Test the AI completes four in a row when it can.
+   */
+  @Test
+  public void testTakesWin() {
+    MoveSearcher ai = new ConnectFourAI(200, 20, 16);
+    assertEquals(4, ai.findMove(position(1, 1, 2, 2, 3, 3)));
+  }
+
+  /**
+   * Test the AI blocks the opponent's four in a row.
+   */
+  @Test
+  public void testBlocksLoss() {
+    MoveSearcher ai = new ConnectFourAI(200, 20, 16);
+    assertEquals(4, ai.findMove(position(1, 7, 2, 7, 3)));
+  }
+
+  /**
+   * Test the parallel searcher takes wins and blocks losses like the single-threaded one.
+   */
+  @Test
+  public void testParallelSearcher() {
+    try (ParallelMoveSearcher ai = new ParallelMoveSearcher(200, 20, 16, 4)) {
+      assertEquals(4, ai.findMove(position(1, 1, 2, 2, 3, 3)));
+      assertEquals(4, ai.findMove(position(1, 7, 2, 7, 3)));
+      assertTrue(ai.getNodeCount() > 0);
+    }
+  }
+
+  /**
+   * Test the AI does not change the model it searches.
+   */
+  @Test
+  public void testModelUnchanged() {
+    ConnectFourModel m = position(4, 4, 3);
+    String before = m.toString();
+    new ConnectFourAI(100, 20, 16).findMove(m);
+    assertEquals(before, m.toString());
+    assertEquals(Player.YELLOW, m.getTurn());
+  }
+
+  /**
+   * Test the AI finds a legal move on a large board.
+   */
+  @Test
+  public void testLargeBoard() {
+    ConnectFourModel m = new ConnectFourModelImpl(20, 20);
+    m.makeMove(10);
+    int move = new ConnectFourAI(100, 20, 16).findMove(m);
+    assertTrue(move >= 1 && move <= 20);
+  }
+
+  /**
+   * Test the AI cannot move once the game is over.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testGameOver() {
+    new ConnectFourAI(100, 20, 16).findMove(position(1, 1, 2, 2, 3, 3, 4));
+  }
+
+  /**
+   * Test the controller lets the AI play YELLOW against moves read from the input.
+   */
+  @Test
+  public void testControllerHumanVsAi() {
+    Readable in = new StringReader("1 2 0");
+    StringBuilder out = new StringBuilder();
+    ConnectFourView view = new ConnectFourView(out);
+    ConnectFourModel m = new ConnectFourModelImpl();
+    new ConnectFourConsoleController(in, view, Player.YELLOW, new ConnectFourAI(50, 20, 16))
+        .playGame(m);
+    String output = out.toString();
+    assertEquals(2, output.split("Player YELLOW plays column").length - 1);
+    assertTrue(output.endsWith(m.toString() + "\n"));
+  }
+}
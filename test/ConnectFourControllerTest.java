@@ -2,8 +2,10 @@ import static org.junit.Assert.assertEquals;
 
 import connect.ConnectFourConsoleController;
 import connect.ConnectFourModel;
+import connect.ConnectFourModelImpl;
 import connect.ConnectFourModelMock;
 import connect.ConnectFourView;
+import java.io.IOException;
 import java.io.StringReader;
 import org.junit.Test;
 
@@ -141,4 +143,56 @@ public class ConnectFourControllerTest {
     this.controller = new ConnectFourConsoleController(in, view);
     controller.playGame(null);
   }
+
+  /**
+   * Test a buffered view holds its output back until it is flushed.
+   */
+  @Test
+  public void testBufferedViewHoldsOutput() throws IOException {
+    StringBuilder out = new StringBuilder();
+    ConnectFourView view = new ConnectFourView(out, true);
+    view.displayPlayerTurn("R");
+    view.displayErrorMessage("Is not a number!");
+    assertEquals("", out.toString());
+    view.flush();
+    assertEquals("Player RED, make your move: \nIs not a number!\n", out.toString());
+    view.flush();
+    assertEquals("Player RED, make your move: \nIs not a number!\n", out.toString());
+  }
+
+  /**
+   * Test the controller flushes a buffered view once per turn, and that the output is the same
+   * as without buffering.
+   */
+  @Test
+  public void testBufferedViewWritesOncePerTurn() {
+    String input = "4\nx\n5\n0\n";
+    StringBuilder expected = new StringBuilder();
+    new ConnectFourConsoleController(new StringReader(input), new ConnectFourView(expected))
+        .playGame(new ConnectFourModelImpl());
+    int[] writes = new int[1];
+    StringBuilder out = new StringBuilder();
+    Appendable counting = new Appendable() {
+      @Override
+      public Appendable append(CharSequence csq) {
+        writes[0]++;
+        out.append(csq);
+        return this;
+      }
+
+      @Override
+      public Appendable append(CharSequence csq, int start, int end) {
+        return append(csq.subSequence(start, end));
+      }
+
+      @Override
+      public Appendable append(char c) {
+        return append(String.valueOf(c));
+      }
+    };
+    new ConnectFourConsoleController(new StringReader(input), new ConnectFourView(counting, true))
+        .playGame(new ConnectFourModelImpl());
+    assertEquals(expected.toString(), out.toString());
+    assertEquals(5, writes[0]);
+  }
 }
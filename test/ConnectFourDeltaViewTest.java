@@ -0,0 +1,110 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import connect.ConnectFourConsoleController;
+import connect.ConnectFourDeltaView;
+import connect.ConnectFourModel;
+import connect.ConnectFourModelImpl;
+import connect.MoveEvent;
+import connect.MoveListener;
+import connect.ObservableModel;
+import connect.Player;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * This is the test for the ConnectFourDeltaView class and the move events of ObservableModel.
+ */
+public class ConnectFourDeltaViewTest {
+
+  /**
+   * Test a game sends the board once and then only the moves.
+   */
+  @Test
+  public void testGameSendsMoves() {
+    ObservableModel m = new ObservableModel(new ConnectFourModelImpl());
+    StringBuilder out = new StringBuilder();
+    ConnectFourDeltaView view = new ConnectFourDeltaView(out);
+    m.addListener(view);
+    new ConnectFourConsoleController(new StringReader("4\nx\n4\n0\n"), view).playGame(m);
+    ConnectFourModelImpl expected = new ConnectFourModelImpl();
+    String empty = expected.toString();
+    expected.makeMove(4);
+    expected.makeMove(4);
+    assertEquals("keyframe 0\n" + empty
+        + "Player RED, make your move: \n"
+        + "move 1 4 0 R\n"
+        + "Player YELLOW, make your move: \n"
+        + "Is not a number!\n"
+        + "Player YELLOW, make your move: \n"
+        + "move 2 4 1 Y\n"
+        + "Player RED, make your move: \n"
+        + "Game quit! Ending game state:\n" + expected + "\n", out.toString());
+  }
+
+  /**
+   * Test the whole board is sent again after an undo and after the keyframe interval.
+   */
+  @Test
+  public void testKeyframes() throws IOException {
+    ObservableModel m = new ObservableModel(new ConnectFourModelImpl());
+    StringBuilder out = new StringBuilder();
+    ConnectFourDeltaView view = new ConnectFourDeltaView(out, false, 2);
+    m.addListener(view);
+    view.displayGameState(m);
+    m.makeMove(1);
+    m.makeMove(2);
+    out.setLength(0);
+    view.displayGameState(m);
+    assertEquals("move 1 1 0 R\nmove 2 2 0 Y\n", out.toString());
+    m.makeMove(3);
+    out.setLength(0);
+    view.displayGameState(m);
+    assertEquals("keyframe 3\n" + m, out.toString());
+    m.makeMove(4);
+    m.undoMove();
+    out.setLength(0);
+    view.displayGameState(m);
+    assertEquals("keyframe 3\n" + m, out.toString());
+    out.setLength(0);
+    view.displayGameState(m);
+    assertEquals("", out.toString());
+  }
+
+  /**
+   * Test the events carry the row, the player and the result, also for moves made again.
+   */
+  @Test
+  public void testEvents() {
+    ObservableModel m = new ObservableModel(new ConnectFourModelImpl());
+    List<MoveEvent> events = new ArrayList<>();
+    int[] changes = new int[1];
+    m.addListener(new MoveListener() {
+      @Override
+      public void onMove(MoveEvent event) {
+        events.add(event);
+      }
+
+      @Override
+      public void onBoardChanged(ConnectFourModel model) {
+        changes[0]++;
+      }
+    });
+    for (int column : new int[] {1, 2, 1, 2, 1, 2}) {
+      m.makeMove(column);
+    }
+    m.makeMove(1);
+    MoveEvent win = events.get(events.size() - 1);
+    assertEquals("move 7 1 3 R win", win.toString());
+    assertEquals(Player.RED, win.getWinner());
+    assertTrue(win.isGameOver());
+    m.undoMove();
+    m.redoMove();
+    assertEquals(1, changes[0]);
+    assertEquals(win.toString(), events.get(events.size() - 1).toString());
+    assertEquals(8, events.size());
+  }
+}
@@ -0,0 +1,123 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import connect.ConnectFourConsoleController;
+import connect.ConnectFourEventController;
+import connect.ConnectFourModel;
+import connect.ConnectFourModelImpl;
+import connect.ConnectFourModelMock;
+import connect.ConnectFourView;
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.Test;
+
+/**
+ * This is the test for the ConnectFourEventController class. The expected output is the same as
+ * the console controller's in {@code ConnectFourControllerTest}.
+ */
+public class ConnectFourEventControllerTest {
+
+  /**
+   * Plays a game by handing the input to the controller in chunks of the given size.
+   *
+   * @param m         the model
+   * @param input     the whole input
+   * @param chunkSize the number of characters per chunk
+   * @return the output of the game
+   * @throws IOException if an I/O error occurs
+   */
+  private String play(ConnectFourModel m, String input, int chunkSize) throws IOException {
+    StringBuilder out = new StringBuilder();
+    ConnectFourEventController controller = new ConnectFourEventController(
+        new ConnectFourView(out));
+    controller.start(m);
+    for (int i = 0; i < input.length(); i += chunkSize) {
+      controller.onInput(input.substring(i, Math.min(input.length(), i + chunkSize)));
+    }
+    controller.onEndOfInput();
+    return out.toString();
+  }
+
+  /**
+   * Test a game that ends in a tie.
+   */
+  @Test
+  public void testTie() throws IOException {
+    ConnectFourModel model = new ConnectFourModelMock(new boolean[] {false, true, true}, "tie");
+    assertEquals("tie\n"
+        + "Player RED, make your move: \n"
+        + "tie\n" + "Game over! It's a tie!\n"
+        + "Do you want to play again? (yes/no)\n", play(model, "5 n\n", 1));
+  }
+
+  /**
+   * Test a word that is not a number is rejected together with the rest of its line.
+   */
+  @Test
+  public void testNotNumberSkipsLine() throws IOException {
+    ConnectFourModel m = new ConnectFourModelImpl();
+    String output = play(m, "k 3\n4\n0\n", 2);
+    assertEquals(1, output.split("Is not a number!").length - 1);
+    ConnectFourModel expected = new ConnectFourModelImpl();
+    expected.makeMove(4);
+    assertEquals(expected.toString(), m.toString());
+  }
+
+  /**
+   * Test a word too long to be a move is rejected like any other word that is not a number,
+   * even if it is made of digits, and the rest of its line is skipped.
+   */
+  @Test
+  public void testLongWordRejected() throws IOException {
+    StringBuilder word = new StringBuilder();
+    for (int i = 0; i < 100_000; i++) {
+      word.append(i % 2 == 0 ? '0' : 'a');
+    }
+    String expected = play(new ConnectFourModelImpl(), "x 5\n4\n0\n", 7);
+    assertEquals(expected, play(new ConnectFourModelImpl(), word + " 5\n4\n0\n", 4096));
+    StringBuilder digits = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      digits.append('0');
+    }
+    assertEquals(expected, play(new ConnectFourModelImpl(), digits + "4 5\n4\n0\n", 3));
+  }
+
+  /**
+   * Test the controller allows the player to play again, like the console controller.
+   */
+  @Test
+  public void testPlayAgainMatchesConsole() throws IOException {
+    String input = "1 2 1 2 1 2 1 y 4 x 9\n 0";
+    StringBuilder console = new StringBuilder();
+    new ConnectFourConsoleController(new StringReader(input), new ConnectFourView(console))
+        .playGame(new ConnectFourModelImpl());
+    for (int chunkSize : new int[] {1, 3, 100}) {
+      assertEquals(console.toString(), play(new ConnectFourModelImpl(), input, chunkSize));
+    }
+  }
+
+  /**
+   * Test the controller stops reacting once the player quits.
+   */
+  @Test
+  public void testQuit() throws IOException {
+    StringBuilder out = new StringBuilder();
+    ConnectFourEventController controller = new ConnectFourEventController(
+        new ConnectFourView(out));
+    controller.start(new ConnectFourModelImpl());
+    assertFalse(controller.isFinished());
+    controller.onInput("0\n4\n");
+    assertTrue(controller.isFinished());
+    assertTrue(out.toString().endsWith("Game quit! Ending game state:\n"
+        + new ConnectFourModelImpl() + "\n"));
+  }
+
+  /**
+   * Test the controller rejects a null model.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullModel() throws IOException {
+    new ConnectFourEventController(new ConnectFourView(new StringBuilder())).start(null);
+  }
+}
@@ -0,0 +1,463 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import connect.ConcurrentConnectFourModel;
+import connect.ConnectFourBitboardModel;
+import connect.ConnectFourModel;
+import connect.ConnectFourModelImpl;
+import connect.ConnectFourSparseModel;
+import connect.Player;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * This is the test for the ConnectFourModel implementations. Every test runs against each
+ * implementation so that they stay interchangeable.
+ */
+public class ConnectFourModelTest {
+
+  /**
+   * Creates one model of every implementation with the given size.
+   *
+   * @param rows    the number of rows
+   * @param columns the number of columns
+   * @return the models to test
+   */
+  private ConnectFourModel[] models(int rows, int columns) {
+    return models(rows, columns, 4);
+  }
+
+  /**
+   * Creates one model of every implementation with the given size and win length.
+   *
+   * @param rows      the number of rows
+   * @param columns   the number of columns
+   * @param winLength the number of discs in a line needed to win
+   * @return the models to test
+   */
+  private ConnectFourModel[] models(int rows, int columns, int winLength) {
+    return new ConnectFourModel[] {
+        new ConnectFourModelImpl(rows, columns, winLength),
+        new ConnectFourBitboardModel(rows, columns, winLength),
+        new ConnectFourSparseModel(rows, columns, winLength),
+        new ConcurrentConnectFourModel(new ConnectFourModelImpl(rows, columns, winLength))
+    };
+  }
+
+  /**
+   * Plays the given columns in order.
+   *
+   * @param m     the model
+   * @param moves the columns, starting at 1
+   */
+  private void play(ConnectFourModel m, int... moves) {
+    for (int move : moves) {
+      m.makeMove(move);
+    }
+  }
+
+  /**
+   * Builds the expected text of a board from its cells.
+   *
+   * @param board the cells of the board
+   * @return the text the model should display
+   */
+  private String expectedText(Player[][] board) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = board.length - 1; i >= 0; i--) {
+      sb.append(i).append(": ");
+      for (Player cell : board[i]) {
+        sb.append(cell == null ? "n" : cell.getDisplayName()).append(" ");
+      }
+      sb.append("\n");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Test the board text follows moves and resets, whether it is rendered as a string or written
+   * into an Appendable.
+   */
+  @Test
+  public void testRenderBoard() throws IOException {
+    for (ConnectFourModel m : models(6, 7)) {
+      assertEquals(expectedText(m.getBoardState()), m.toString());
+      play(m, 4, 4, 3);
+      StringWriter writer = new StringWriter();
+      m.renderBoard(writer);
+      assertEquals(expectedText(m.getBoardState()), writer.toString());
+      StringBuilder sb = new StringBuilder("x");
+      m.renderBoard(sb);
+      assertEquals("x" + m.toString(), sb.toString());
+      m.resetBoard();
+      assertEquals(expectedText(m.getBoardState()), m.toString());
+    }
+  }
+
+  /**
+   * Test a new game starts empty with RED to move.
+   */
+  @Test
+  public void testNewGame() {
+    for (ConnectFourModel m : models(6, 7)) {
+      assertFalse(m.isGameOver());
+      assertEquals(Player.RED, m.getTurn());
+      assertNull(m.getWinner());
+      assertEquals(6, m.getBoardState().length);
+      assertEquals(7, m.getBoardState()[0].length);
+    }
+  }
+
+  /**
+   * Test discs stack up from the bottom and turns alternate.
+   */
+  @Test
+  public void testMakeMoveStacks() {
+    for (ConnectFourModel m : models(6, 7)) {
+      play(m, 4, 4, 3);
+      Player[][] board = m.getBoardState();
+      assertEquals(Player.RED, board[0][3]);
+      assertEquals(Player.YELLOW, board[1][3]);
+      assertEquals(Player.RED, board[0][2]);
+      assertEquals(Player.YELLOW, m.getTurn());
+      assertEquals(Player.YELLOW, m.cellAt(1, 3));
+      assertNull(m.cellAt(2, 3));
+    }
+  }
+
+  /**
+   * Test reading a cell outside of the board is rejected.
+   */
+  @Test
+  public void testCellAtOutOfBounds() {
+    for (ConnectFourModel m : models(6, 7)) {
+      try {
+        m.cellAt(6, 0);
+        fail("expected an IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+        assertEquals("Cell out of bounds", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Test column heights follow the moves and are cleared by a reset.
+   */
+  @Test
+  public void testColumnHeight() {
+    for (ConnectFourModel m : models(6, 7)) {
+      play(m, 4, 4, 3);
+      assertEquals(2, m.getColumnHeight(4));
+      assertEquals(1, m.getColumnHeight(3));
+      assertEquals(0, m.getColumnHeight(1));
+      assertEquals(6, m.getRows());
+      assertEquals(7, m.getColumns());
+      m.resetBoard();
+      assertEquals(0, m.getColumnHeight(4));
+    }
+  }
+
+  /**
+   * Test a move outside of the board is rejected.
+   */
+  @Test
+  public void testMakeMoveOutOfBounds() {
+    for (ConnectFourModel m : models(6, 7)) {
+      try {
+        m.makeMove(8);
+        fail("expected an IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+        assertEquals("Column out of bounds", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Test a move into a full column is rejected.
+   */
+  @Test
+  public void testMakeMoveColumnFull() {
+    for (ConnectFourModel m : models(6, 7)) {
+      play(m, 1, 1, 1, 1, 1, 1);
+      try {
+        m.makeMove(1);
+        fail("expected an IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+        assertEquals("Column is full", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Test wins in each of the four directions.
+   */
+  @Test
+  public void testWinner() {
+    int[][] games = {
+        {1, 1, 2, 2, 3, 3, 4},
+        {1, 2, 1, 2, 1, 2, 1},
+        {1, 2, 2, 3, 3, 4, 3, 4, 4, 7, 4},
+        {7, 6, 6, 5, 5, 4, 5, 4, 4, 1, 4}
+    };
+    for (int[] game : games) {
+      for (ConnectFourModel m : models(6, 7)) {
+        play(m, game);
+        assertTrue(m.isGameOver());
+        assertEquals(Player.RED, m.getWinner());
+        assertNull(m.getTurn());
+      }
+    }
+  }
+
+  /**
+   * Test no more discs can be placed once the game has a winner.
+   */
+  @Test
+  public void testMakeMoveAfterGameOver() {
+    for (ConnectFourModel m : models(6, 7)) {
+      play(m, 1, 1, 2, 2, 3, 3, 4);
+      try {
+        m.makeMove(5);
+        fail("expected an IllegalStateException");
+      } catch (IllegalStateException e) {
+        assertEquals(Player.RED, m.getWinner());
+      }
+    }
+  }
+
+  /**
+   * Test resetting the board clears discs, the winner and the turn.
+   */
+  @Test
+  public void testResetBoard() {
+    for (ConnectFourModel m : models(6, 7)) {
+      play(m, 1, 1, 2, 2, 3, 3, 4);
+      m.resetBoard();
+      assertFalse(m.isGameOver());
+      assertNull(m.getWinner());
+      assertEquals(Player.RED, m.getTurn());
+      assertEquals(new ConnectFourModelImpl().toString(), m.toString());
+    }
+  }
+
+  /**
+   * Test undoing a winning move restores the board, the turn and the winner, and that redoing
+   * it wins again.
+   */
+  @Test
+  public void testUndoRedo() {
+    for (ConnectFourModel m : models(6, 7)) {
+      play(m, 1, 1, 2, 2, 3, 3);
+      String before = m.toString();
+      m.makeMove(4);
+      assertArrayEquals(new int[] {1, 1, 2, 2, 3, 3, 4}, m.getMoveHistory());
+      m.undoMove();
+      assertFalse(m.isGameOver());
+      assertNull(m.getWinner());
+      assertEquals(Player.RED, m.getTurn());
+      assertEquals(0, m.getColumnHeight(4));
+      assertEquals(before, m.toString());
+      assertArrayEquals(new int[] {1, 1, 2, 2, 3, 3}, m.getMoveHistory());
+      m.undoMove();
+      assertEquals(Player.YELLOW, m.getTurn());
+      m.redoMove();
+      m.redoMove();
+      assertEquals(Player.RED, m.getWinner());
+      assertArrayEquals(new int[] {1, 1, 2, 2, 3, 3, 4}, m.getMoveHistory());
+    }
+  }
+
+  /**
+   * Test a new move discards the moves that could be redone, and that there is nothing to undo
+   * or redo on a new board.
+   */
+  @Test
+  public void testUndoRedoLimits() {
+    for (ConnectFourModel m : models(6, 7)) {
+      try {
+        m.undoMove();
+        fail("expected an IllegalStateException");
+      } catch (IllegalStateException e) {
+        assertEquals("No move to undo", e.getMessage());
+      }
+      play(m, 4, 5);
+      m.undoMove();
+      m.makeMove(3);
+      try {
+        m.redoMove();
+        fail("expected an IllegalStateException");
+      } catch (IllegalStateException e) {
+        assertEquals("No move to redo", e.getMessage());
+      }
+      assertArrayEquals(new int[] {4, 3}, m.getMoveHistory());
+      m.resetBoard();
+      assertArrayEquals(new int[0], m.getMoveHistory());
+    }
+  }
+
+  /**
+   * Test undoing every move of random games, one at a time, walks back through the same boards
+   * that were played.
+   */
+  @Test
+  public void testUndoWholeGame() {
+    Random random = new Random(42);
+    for (ConnectFourModel m : models(6, 7)) {
+      for (int game = 0; game < 50; game++) {
+        m.resetBoard();
+        List<String> boards = new ArrayList<>();
+        while (!m.isGameOver()) {
+          int column = 1 + random.nextInt(7);
+          if (m.getColumnHeight(column) < 6) {
+            boards.add(m.toString());
+            m.makeMove(column);
+          }
+        }
+        for (int i = boards.size() - 1; i >= 0; i--) {
+          m.undoMove();
+          assertEquals(boards.get(i), m.toString());
+          assertTrue(Arrays.deepEquals(m.getBoardState(),
+              new ConnectFourModelImpl().getBoardState()) == (i == 0));
+        }
+      }
+    }
+  }
+
+  /**
+   * Test a longer win length needs that many discs in a line.
+   */
+  @Test
+  public void testConnectK() {
+    for (ConnectFourModel m : models(10, 10, 5)) {
+      assertEquals(5, m.getWinLength());
+      play(m, 1, 1, 2, 2, 3, 3, 4, 4);
+      assertFalse(m.isGameOver());
+      m.makeMove(5);
+      assertEquals(Player.RED, m.getWinner());
+    }
+  }
+
+  /**
+   * Test a shorter win length on a board that fits in a single word.
+   */
+  @Test
+  public void testConnectThree() {
+    for (ConnectFourModel m : models(6, 7, 3)) {
+      play(m, 1, 2, 2, 3, 4, 3);
+      assertFalse(m.isGameOver());
+      m.makeMove(3);
+      assertEquals(Player.RED, m.getWinner());
+    }
+  }
+
+  /**
+   * Test a diagonal win on a very large board.
+   */
+  @Test
+  public void testConnectKLargeBoard() {
+    for (ConnectFourModel m : models(1000, 1000, 6)) {
+      int dummy = 10;
+      for (int i = 1; i < 6; i++) {
+        for (int j = 0; j < i; j++) {
+          play(m, dummy, 500 + i);
+          dummy += 10;
+        }
+      }
+      for (int i = 0; i < 5; i++) {
+        play(m, 500 + i, 700 + 2 * i);
+        assertFalse(m.isGameOver());
+      }
+      m.makeMove(505);
+      assertEquals(Player.RED, m.getWinner());
+    }
+  }
+
+  /**
+   * Test win lengths that cannot be played are rejected.
+   */
+  @Test
+  public void testInvalidWinLength() {
+    int[] lengths = {1, 11};
+    for (int length : lengths) {
+      try {
+        new ConnectFourModelImpl(10, 10, length);
+        fail("expected an IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+        assertEquals("Win length must be between 2 and the board size", e.getMessage());
+      }
+      try {
+        new ConnectFourBitboardModel(10, 10, length);
+        fail("expected an IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+        assertEquals("Win length must be between 2 and the board size", e.getMessage());
+      }
+      try {
+        new ConnectFourSparseModel(10, 10, length);
+        fail("expected an IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+        assertEquals("Win length must be between 2 and the board size", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Test the sparse model plays on a board far too large to allocate densely, and that
+   * resetting it only clears the discs that were played.
+   */
+  @Test
+  public void testSparseHugeBoard() {
+    ConnectFourModel m = new ConnectFourSparseModel(1_000_000, 100_000, 5);
+    play(m, 1, 100_000, 1, 100_000, 1, 100_000, 1, 100_000);
+    assertFalse(m.isGameOver());
+    m.makeMove(1);
+    assertEquals(Player.RED, m.getWinner());
+    assertEquals(Player.RED, m.cellAt(4, 0));
+    assertEquals(Player.YELLOW, m.cellAt(3, 99_999));
+    assertNull(m.cellAt(999_999, 50_000));
+    m.resetBoard();
+    assertEquals(0, m.getColumnHeight(1));
+    assertNull(m.cellAt(0, 0));
+    assertEquals(Player.RED, m.getTurn());
+  }
+
+  /**
+   * Test random games produce the same states in every implementation, including boards that
+   * do not fit in a single 64-bit word.
+   */
+  @Test
+  public void testImplementationsAgree() {
+    Random random = new Random(5004);
+    int[][] sizes = {{6, 7}, {4, 4}, {9, 9}, {12, 5}};
+    for (int[] size : sizes) {
+      for (int game = 0; game < 200; game++) {
+        ConnectFourModel[] ms = models(size[0], size[1]);
+        while (!ms[0].isGameOver()) {
+          int column = 1 + random.nextInt(size[1]);
+          if (ms[0].getColumnHeight(column) == ms[0].getRows()) {
+            continue;
+          }
+          for (ConnectFourModel m : ms) {
+            m.makeMove(column);
+          }
+          for (ConnectFourModel m : ms) {
+            assertEquals(ms[0].isGameOver(), m.isGameOver());
+            assertEquals(ms[0].getWinner(), m.getWinner());
+            assertEquals(ms[0].getTurn(), m.getTurn());
+            assertEquals(ms[0].getColumnHeight(column), m.getColumnHeight(column));
+            assertTrue(Arrays.deepEquals(ms[0].getBoardState(), m.getBoardState()));
+            assertEquals(expectedText(m.getBoardState()), m.toString());
+          }
+        }
+      }
+    }
+  }
+}
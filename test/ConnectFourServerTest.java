@@ -0,0 +1,228 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import connect.ConnectFourModelImpl;
+import connect.ConnectFourNioServer;
+import connect.ConnectFourServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+/**
+ * This is the test for the ConnectFourServer class.
+ */
+public class ConnectFourServerTest {
+
+  /**
+   * Connects to the server, sends the given input and reads everything until the server
+   * disconnects.
+   *
+   * @param port  the port of the server
+   * @param input the moves to send
+   * @return the text received
+   * @throws IOException if an I/O error occurs
+   */
+  private String play(int port, String input) throws IOException {
+    return play(port, input.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Connects to the server, sends the given bytes and reads everything until the server
+   * disconnects.
+   *
+   * @param port  the port of the server
+   * @param input the bytes to send
+   * @return the text received
+   * @throws IOException if an I/O error occurs
+   */
+  private String play(int port, byte[] input) throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      OutputStream out = socket.getOutputStream();
+      out.write(input);
+      out.flush();
+      InputStream in = socket.getInputStream();
+      ByteArrayOutputStream received = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        received.write(buffer, 0, read);
+      }
+      return received.toString(StandardCharsets.UTF_8.name());
+    }
+  }
+
+  /**
+   * Test a client plays a game over a connection and the session ends when it quits.
+   */
+  @Test(timeout = 10000)
+  public void testPlayAndQuit() throws Exception {
+    try (ConnectFourServer server = new ConnectFourServer(0, 4, ConnectFourModelImpl::new)) {
+      server.start();
+      String output = play(server.getPort(), "4\n0\n");
+      assertTrue(output.startsWith(new ConnectFourModelImpl().toString()));
+      assertTrue(output.contains("Player YELLOW, make your move: \n"));
+      assertTrue(output.endsWith("Game quit! Ending game state:\n"
+          + "5: n n n n n n n \n4: n n n n n n n \n3: n n n n n n n \n"
+          + "2: n n n n n n n \n1: n n n n n n n \n0: n n n R n n n \n\n"));
+    }
+  }
+
+  /**
+   * Test several clients play at the same time, each on its own board.
+   */
+  @Test(timeout = 10000)
+  public void testConcurrentSessions() throws Exception {
+    try (ConnectFourServer server = new ConnectFourServer(0, 16, ConnectFourModelImpl::new)) {
+      server.start();
+      Thread[] clients = new Thread[8];
+      String[] outputs = new String[clients.length];
+      for (int i = 0; i < clients.length; i++) {
+        int index = i;
+        clients[i] = new Thread(() -> {
+          try {
+            outputs[index] = play(server.getPort(), (index % 7 + 1) + "\n0\n");
+          } catch (IOException e) {
+            outputs[index] = e.toString();
+          }
+        });
+        clients[i].start();
+      }
+      for (int i = 0; i < clients.length; i++) {
+        clients[i].join();
+        ConnectFourModelImpl expected = new ConnectFourModelImpl();
+        expected.makeMove(i % 7 + 1);
+        assertTrue(outputs[i].endsWith("Game quit! Ending game state:\n" + expected + "\n"));
+      }
+    }
+  }
+
+  /**
+   * Test clients beyond the session limit are turned away.
+   */
+  @Test(timeout = 10000)
+  public void testSessionLimit() throws Exception {
+    try (ConnectFourServer server = new ConnectFourServer(0, 1, ConnectFourModelImpl::new);
+        Socket first = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+      server.start();
+      assertTrue(first.getInputStream().read() != -1);
+      assertEquals("Server is full\n", play(server.getPort(), ""));
+      first.getOutputStream().write("0\n".getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * Test the server waits for games in progress when it shuts down and then stops accepting.
+   */
+  @Test(timeout = 10000)
+  public void testShutdown() throws Exception {
+    ConnectFourServer server = new ConnectFourServer(0, 4, ConnectFourModelImpl::new);
+    server.start();
+    play(server.getPort(), "0\n");
+    assertTrue(server.shutdown(1000));
+    assertEquals(0, server.getActiveSessions());
+  }
+
+  /**
+   * Test the non-blocking server plays the same game as the blocking one, for many clients on
+   * two selector threads.
+   */
+  @Test(timeout = 10000)
+  public void testNioServer() throws Exception {
+    try (ConnectFourServer blocking = new ConnectFourServer(0, 4, ConnectFourModelImpl::new);
+        ConnectFourNioServer server = new ConnectFourNioServer(0, 2,
+            ConnectFourModelImpl::new)) {
+      blocking.start();
+      server.start();
+      String input = "1 2 1 2 1 2 1 y 4 x\n 9 0\n";
+      String expected = play(blocking.getPort(), input);
+      assertTrue(expected.contains("RED is the winner!"));
+      for (int i = 0; i < 20; i++) {
+        assertEquals(expected, play(server.getPort(), input));
+      }
+    }
+  }
+
+  /**
+   * Test input that is not valid UTF-8 is replaced and rejected like on the blocking server, and
+   * the game goes on.
+   */
+  @Test(timeout = 10000)
+  public void testNioServerInvalidUtf8() throws Exception {
+    try (ConnectFourServer blocking = new ConnectFourServer(0, 4, ConnectFourModelImpl::new);
+        ConnectFourNioServer server = new ConnectFourNioServer(0, 1,
+            ConnectFourModelImpl::new)) {
+      blocking.start();
+      server.start();
+      byte[] input = {(byte) 0xff, '\n', '4', ' ', (byte) 0xc3, '\n', '5', '\n', '0', '\n'};
+      String expected = play(blocking.getPort(), input);
+      assertEquals(2, expected.split("Is not a number!").length - 1);
+      assertEquals(expected, play(server.getPort(), input));
+    }
+  }
+
+  /**
+   * Test a client that sends far more than it reads still gets all of its output once it reads,
+   * with the server pausing and resuming reading in between.
+   */
+  @Test(timeout = 30000)
+  public void testNioServerSlowReader() throws Exception {
+    try (ConnectFourNioServer server = new ConnectFourNioServer(0, 1,
+        ConnectFourModelImpl::new);
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+      server.start();
+      StringBuilder input = new StringBuilder();
+      for (int i = 0; i < 20_000; i++) {
+        input.append("9\n");
+      }
+      input.append("0\n");
+      Thread writer = new Thread(() -> {
+        try {
+          socket.getOutputStream().write(input.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+          // the read below fails the test
+        }
+      });
+      writer.start();
+      Thread.sleep(200);
+      InputStream in = socket.getInputStream();
+      ByteArrayOutputStream received = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        received.write(buffer, 0, read);
+      }
+      writer.join();
+      String output = received.toString(StandardCharsets.UTF_8.name());
+      assertEquals(20_000, output.split("Not a valid number").length - 1);
+      assertTrue(output.endsWith("Game quit! Ending game state:\n"
+          + new ConnectFourModelImpl() + "\n"));
+    }
+  }
+
+  /**
+   * Test a session whose game throws is closed on its own, and the selector thread goes on
+   * serving new clients.
+   */
+  @Test(timeout = 10000)
+  public void testNioServerFailingSession() throws Exception {
+    AtomicInteger created = new AtomicInteger();
+    try (ConnectFourNioServer server = new ConnectFourNioServer(0, 1, () -> {
+      if (created.getAndIncrement() == 0) {
+        throw new IllegalStateException("No model for the first client");
+      }
+      return new ConnectFourModelImpl();
+    })) {
+      server.start();
+      assertEquals("", play(server.getPort(), "0\n"));
+      String output = play(server.getPort(), "1 2 1 2 1 2 1 y 0\n");
+      assertTrue(output.contains("RED is the winner!"));
+      assertEquals(2, created.get());
+    }
+  }
+}
@@ -0,0 +1,229 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import connect.ConnectFourBitboardModel;
+import connect.ConnectFourModel;
+import connect.ConnectFourModelImpl;
+import connect.ConnectFourSolver;
+import connect.Player;
+import connect.Solution;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * This is the test for the ConnectFourSolver class.
+ */
+public class ConnectFourSolverTest {
+
+  /**
+   * Test the solver agrees with a plain minimax search on small boards, and that its best move
+   * achieves the score.
+   */
+  @Test
+  public void testMatchesMinimax() {
+    Random random = new Random(5004);
+    int[][] sizes = {{4, 4}, {4, 5}, {5, 4}};
+    for (int[] size : sizes) {
+      ConnectFourSolver solver = new ConnectFourSolver(size[0], size[1], 16, 1024);
+      Map<String, Integer> memo = new HashMap<>();
+      for (int game = 0; game < 20; game++) {
+        List<Integer> moves = randomPosition(size[0], size[1], 8 + random.nextInt(4), random);
+        if (moves == null) {
+          continue;
+        }
+        ConnectFourModel m = replay(size[0], size[1], moves);
+        Solution solution = solver.solve(m);
+        int expected = minimax(size[0], size[1], moves, memo);
+        assertEquals(expected, solution.getScore());
+        Player other = m.getTurn() == Player.RED ? Player.YELLOW : Player.RED;
+        assertEquals(expected > 0 ? m.getTurn() : expected < 0 ? other : null,
+            solution.getWinner());
+
+        moves.add(solution.getBestMove());
+        ConnectFourModel after = replay(size[0], size[1], moves);
+        if (!after.isGameOver()) {
+          assertEquals(-expected, minimax(size[0], size[1], moves, memo));
+        } else {
+          assertTrue(after.getWinner() == m.getTurn() || expected == 0);
+        }
+      }
+    }
+  }
+
+  /**
+   * Test positions of the standard board are solved consistently: the position after the best
+   * move is worth the opposite score for the opponent.
+   */
+  @Test
+  public void testStandardBoard() {
+    Random random = new Random(42);
+    ConnectFourSolver solver = new ConnectFourSolver(6, 7, 20, 1024);
+    for (int game = 0; game < 5; game++) {
+      List<Integer> moves = randomPosition(6, 7, 24, random);
+      if (moves == null) {
+        continue;
+      }
+      Solution solution = solver.solve(replay(6, 7, moves));
+      moves.add(solution.getBestMove());
+      ConnectFourModel after = replay(6, 7, moves);
+      if (!after.isGameOver()) {
+        assertEquals(-solution.getScore(), solver.solve(after).getScore());
+      } else {
+        assertTrue(solution.getScore() > 0 || after.getWinner() == null);
+      }
+    }
+  }
+
+  /**
+   * Test a saved cache answers the same position, and its mirror image, without searching.
+   */
+  @Test
+  public void testSavedCache() throws IOException {
+    List<Integer> moves = List.of(4, 4, 3, 5, 2, 3, 3, 1, 5, 5, 6, 7);
+    ConnectFourModel m = replay(6, 7, moves);
+    ConnectFourModel mirrored = new ConnectFourModelImpl();
+    for (int move : moves) {
+      mirrored.makeMove(8 - move);
+    }
+    Path file = Files.createTempFile("solver", ".cache");
+    try {
+      ConnectFourSolver solver = new ConnectFourSolver(6, 7, 20, 1024);
+      Solution solution = solver.solve(m);
+      assertTrue(solver.getNodeCount() > 0);
+      solver.saveCache(file);
+
+      ConnectFourSolver loaded = new ConnectFourSolver(6, 7, 20, 1024);
+      loaded.loadCache(file);
+      assertEquals(1, loaded.getCacheSize());
+      Solution again = loaded.solve(m);
+      assertEquals(solution.getScore(), again.getScore());
+      assertEquals(solution.getBestMove(), again.getBestMove());
+      Solution mirror = loaded.solve(mirrored);
+      assertEquals(solution.getScore(), mirror.getScore());
+      assertEquals(8 - solution.getBestMove(), mirror.getBestMove());
+      assertEquals(0, loaded.getNodeCount());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Test the cache never holds more positions than its capacity.
+   */
+  @Test
+  public void testCacheCapacity() {
+    ConnectFourSolver solver = new ConnectFourSolver(4, 4, 10, 2);
+    ConnectFourModel m = new ConnectFourModelImpl(4, 4);
+    for (int move : new int[] {1, 2, 3}) {
+      m.makeMove(move);
+      solver.solve(m);
+    }
+    assertEquals(2, solver.getCacheSize());
+  }
+
+  /**
+   * Test a board too large for a single word is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testBoardTooLarge() {
+    new ConnectFourSolver(8, 8, 10, 16);
+  }
+
+  /**
+   * Test a finished game cannot be solved.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testGameOver() {
+    ConnectFourModel m = new ConnectFourBitboardModel();
+    for (int move : new int[] {1, 2, 1, 2, 1, 2, 1}) {
+      m.makeMove(move);
+    }
+    new ConnectFourSolver().solve(m);
+  }
+
+  /**
+   * Plays random legal moves.
+   *
+   * @param rows    the number of rows
+   * @param columns the number of columns
+   * @param discs   the number of moves to play
+   * @param random  the random number generator
+   * @return the columns played, or null if the game ended before all moves were played
+   */
+  private List<Integer> randomPosition(int rows, int columns, int discs, Random random) {
+    ConnectFourModel m = new ConnectFourModelImpl(rows, columns);
+    List<Integer> moves = new ArrayList<>();
+    while (moves.size() < discs) {
+      if (m.isGameOver()) {
+        return null;
+      }
+      int column = 1 + random.nextInt(columns);
+      if (m.getColumnHeight(column) < rows) {
+        m.makeMove(column);
+        moves.add(column);
+      }
+    }
+    return m.isGameOver() ? null : moves;
+  }
+
+  /**
+   * Plays the given moves on a new model.
+   *
+   * @param rows    the number of rows
+   * @param columns the number of columns
+   * @param moves   the columns to play
+   * @return the model
+   */
+  private ConnectFourModel replay(int rows, int columns, List<Integer> moves) {
+    ConnectFourModel m = new ConnectFourModelImpl(rows, columns);
+    for (int move : moves) {
+      m.makeMove(move);
+    }
+    return m;
+  }
+
+  /**
+   * Computes the score of a position the slow way, by trying every move.
+   *
+   * @param rows    the number of rows
+   * @param columns the number of columns
+   * @param moves   the columns played so far; the game must not be over
+   * @param memo    the scores already computed, by board
+   * @return the score for the player to move, as defined by {@link Solution#getScore()}
+   */
+  private int minimax(int rows, int columns, List<Integer> moves, Map<String, Integer> memo) {
+    ConnectFourModel m = replay(rows, columns, moves);
+    String board = m.toString();
+    Integer known = memo.get(board);
+    if (known != null) {
+      return known;
+    }
+    int best = Integer.MIN_VALUE;
+    for (int column = 1; column <= columns; column++) {
+      if (m.getColumnHeight(column) == rows) {
+        continue;
+      }
+      moves.add(column);
+      ConnectFourModel after = replay(rows, columns, moves);
+      int score;
+      if (after.getWinner() != null) {
+        score = (rows * columns + 1 - (moves.size() - 1)) / 2;
+      } else if (after.isGameOver()) {
+        score = 0;
+      } else {
+        score = -minimax(rows, columns, moves, memo);
+      }
+      moves.remove(moves.size() - 1);
+      best = Math.max(best, score);
+    }
+    memo.put(board, best);
+    return best;
+  }
+}
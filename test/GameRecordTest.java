@@ -0,0 +1,333 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import connect.ConnectFourBitboardModel;
+import connect.ConnectFourModel;
+import connect.ConnectFourModelImpl;
+import connect.ConnectFourSparseModel;
+import connect.GameRecord;
+import connect.GameRecordReader;
+import connect.GameRecordWriter;
+import connect.GameRecordingModel;
+import connect.Player;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+/**
+ * This is the test for the game records and the files they are stored in.
+ */
+public class GameRecordTest {
+
+  /**
+   * Test records written across several segments are read back unchanged and in order.
+   */
+  @Test
+  public void testWriteAndReadBack() throws IOException {
+    Path dir = Files.createTempDirectory("games");
+    try {
+      List<GameRecord> written = new ArrayList<>();
+      Random random = new Random(5004);
+      try (GameRecordWriter writer = new GameRecordWriter(dir, 256)) {
+        for (int i = 0; i < 200; i++) {
+          GameRecord record = randomGame(6 + i % 3, 7 + i % 5, random);
+          writer.append(record);
+          written.add(record);
+        }
+      }
+      long segments;
+      try (Stream<Path> files = Files.list(dir)) {
+        segments = files.count();
+      }
+      assertTrue(segments > 1);
+
+      List<GameRecord> read = new ArrayList<>();
+      try (GameRecordReader reader = new GameRecordReader(dir)) {
+        while (reader.hasNext()) {
+          read.add(reader.next());
+        }
+      }
+      assertEquals(written, read);
+    } finally {
+      delete(dir);
+    }
+  }
+
+  /**
+   * Test a new writer continues after the segments already in the directory.
+   */
+  @Test
+  public void testAppendToExistingDirectory() throws IOException {
+    Path dir = Files.createTempDirectory("games");
+    try {
+      GameRecord first = new GameRecord(6, 7, new int[] {4, 4, 3}, false, null);
+      GameRecord second = new GameRecord(6, 7, new int[] {1, 2, 1, 2, 1, 2, 1}, true, Player.RED);
+      try (GameRecordWriter writer = new GameRecordWriter(dir)) {
+        writer.append(first);
+      }
+      try (GameRecordWriter writer = new GameRecordWriter(dir)) {
+        writer.append(second);
+      }
+      try (GameRecordReader reader = new GameRecordReader(dir)) {
+        assertEquals(first, reader.next());
+        assertEquals(second, reader.next());
+        assertFalse(reader.hasNext());
+      }
+    } finally {
+      delete(dir);
+    }
+  }
+
+  /**
+   * Test a new writer numbers its segment after the highest one in the directory when an earlier
+   * segment has been removed.
+   */
+  @Test
+  public void testAppendAfterRemovedSegment() throws IOException {
+    Path dir = Files.createTempDirectory("games");
+    try {
+      GameRecord game = new GameRecord(6, 7, new int[] {4, 4, 3}, false, null);
+      for (int i = 0; i < 3; i++) {
+        try (GameRecordWriter writer = new GameRecordWriter(dir)) {
+          writer.append(game);
+        }
+      }
+      Files.delete(dir.resolve("games-000001.c4r"));
+      try (GameRecordWriter writer = new GameRecordWriter(dir)) {
+        writer.append(game);
+      }
+      assertTrue(Files.exists(dir.resolve("games-000003.c4r")));
+      int read = 0;
+      try (GameRecordReader reader = new GameRecordReader(dir)) {
+        while (reader.hasNext()) {
+          assertEquals(game, reader.next());
+          read++;
+        }
+      }
+      assertEquals(3, read);
+    } finally {
+      delete(dir);
+    }
+  }
+
+  /**
+   * Test the recording model records finished and abandoned games, and that replaying them on
+   * another model gives the same board.
+   */
+  @Test
+  public void testRecordingModelAndReplay() throws IOException {
+    Path dir = Files.createTempDirectory("games");
+    try {
+      ConnectFourModel played = new ConnectFourModelImpl();
+      try (GameRecordWriter writer = new GameRecordWriter(dir)) {
+        GameRecordingModel m = new GameRecordingModel(played, writer);
+        for (int move : new int[] {1, 2, 1, 2, 1, 2, 1}) {
+          m.makeMove(move);
+        }
+        assertTrue(m.isGameOver());
+        m.resetBoard();
+        m.makeMove(4);
+        try {
+          m.makeMove(9);
+        } catch (IllegalArgumentException e) {
+          // invalid moves are not recorded
+        }
+        m.makeMove(5);
+        m.finishGame();
+      }
+
+      try (GameRecordReader reader = new GameRecordReader(dir)) {
+        GameRecord won = reader.next();
+        assertTrue(won.isFinished());
+        assertEquals(Player.RED, won.getWinner());
+        assertArrayEquals(new int[] {1, 2, 1, 2, 1, 2, 1}, won.getMoves());
+
+        GameRecord abandoned = reader.next();
+        assertFalse(abandoned.isFinished());
+        assertNull(abandoned.getWinner());
+        assertArrayEquals(new int[] {4, 5}, abandoned.getMoves());
+        assertFalse(reader.hasNext());
+
+        ConnectFourModel replayed = new ConnectFourBitboardModel();
+        abandoned.replay(replayed);
+        assertEquals(played.toString(), replayed.toString());
+      }
+
+      List<Player> winners = new ArrayList<>();
+      try (GameRecordReader reader = new GameRecordReader(dir)) {
+        reader.replayAll(new ConnectFourBitboardModel(), m -> winners.add(m.getWinner()));
+      }
+      assertEquals(2, winners.size());
+      assertEquals(Player.RED, winners.get(0));
+      assertNull(winners.get(1));
+    } finally {
+      delete(dir);
+    }
+  }
+
+  /**
+   * Test games on a sparse board far too large to hold one slot per cell are recorded.
+   */
+  @Test
+  public void testRecordingHugeBoard() throws IOException {
+    Path dir = Files.createTempDirectory("games");
+    try {
+      int[] moves = new int[40];
+      for (int i = 0; i < moves.length; i++) {
+        moves[i] = 1 + i * 2_499;
+      }
+      try (GameRecordWriter writer = new GameRecordWriter(dir)) {
+        GameRecordingModel m =
+            new GameRecordingModel(new ConnectFourSparseModel(100_000, 100_000), writer);
+        for (int move : moves) {
+          m.makeMove(move);
+        }
+        m.finishGame();
+      }
+      try (GameRecordReader reader = new GameRecordReader(dir)) {
+        GameRecord record = reader.next();
+        assertEquals(100_000, record.getRows());
+        assertArrayEquals(moves, record.getMoves());
+      }
+    } finally {
+      delete(dir);
+    }
+  }
+
+  /**
+   * Test taking back the end of a recorded game: making the move again records nothing, playing
+   * to another end records that end, and resetting records the game as it stands as unfinished.
+   */
+  @Test
+  public void testUndoAfterGameOver() throws IOException {
+    Path dir = Files.createTempDirectory("games");
+    try {
+      try (GameRecordWriter writer = new GameRecordWriter(dir)) {
+        GameRecordingModel m = new GameRecordingModel(new ConnectFourModelImpl(), writer);
+        for (int move : new int[] {1, 2, 1, 2, 1, 2, 1}) {
+          m.makeMove(move);
+        }
+        m.undoMove();
+        m.redoMove();
+        m.undoMove();
+        m.makeMove(3);
+        m.makeMove(2);
+        assertEquals(Player.YELLOW, m.getWinner());
+        m.undoMove();
+        m.resetBoard();
+        m.finishGame();
+      }
+
+      try (GameRecordReader reader = new GameRecordReader(dir)) {
+        GameRecord first = reader.next();
+        assertTrue(first.isFinished());
+        assertEquals(Player.RED, first.getWinner());
+        assertArrayEquals(new int[] {1, 2, 1, 2, 1, 2, 1}, first.getMoves());
+
+        GameRecord second = reader.next();
+        assertTrue(second.isFinished());
+        assertEquals(Player.YELLOW, second.getWinner());
+        assertArrayEquals(new int[] {1, 2, 1, 2, 1, 2, 3, 2}, second.getMoves());
+
+        GameRecord abandoned = reader.next();
+        assertFalse(abandoned.isFinished());
+        assertArrayEquals(new int[] {1, 2, 1, 2, 1, 2, 3}, abandoned.getMoves());
+        assertFalse(reader.hasNext());
+      }
+    } finally {
+      delete(dir);
+    }
+  }
+
+  /**
+   * Test the win length of a game other than four in a row is recorded, read back and checked
+   * when the game is replayed.
+   */
+  @Test
+  public void testWinLengthRoundTrip() throws IOException {
+    Path dir = Files.createTempDirectory("games");
+    try {
+      try (GameRecordWriter writer = new GameRecordWriter(dir)) {
+        GameRecordingModel m = new GameRecordingModel(new ConnectFourModelImpl(6, 7, 3), writer);
+        for (int move : new int[] {1, 2, 1, 2, 1}) {
+          m.makeMove(move);
+        }
+        assertTrue(m.isGameOver());
+      }
+      GameRecord record;
+      try (GameRecordReader reader = new GameRecordReader(dir)) {
+        record = reader.next();
+        assertFalse(reader.hasNext());
+      }
+      assertEquals(3, record.getWinLength());
+      assertEquals(Player.RED, record.getWinner());
+      assertArrayEquals(new int[] {1, 2, 1, 2, 1}, record.getMoves());
+
+      ConnectFourModel replayed = new ConnectFourModelImpl(6, 7, 3);
+      record.replay(replayed);
+      assertEquals(Player.RED, replayed.getWinner());
+      try {
+        record.replay(new ConnectFourModelImpl());
+        fail("the win length does not match");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    } finally {
+      delete(dir);
+    }
+  }
+
+  /**
+   * Test a record whose moves do not fit its board is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMove() {
+    new GameRecord(6, 7, new int[] {8}, false, null);
+  }
+
+  /**
+   * Plays random legal moves until the game is over, or stops early at random.
+   *
+   * @param rows    the number of rows
+   * @param columns the number of columns
+   * @param random  the random number generator
+   * @return the record of the game
+   */
+  private GameRecord randomGame(int rows, int columns, Random random) {
+    ConnectFourModel m = new ConnectFourModelImpl(rows, columns);
+    List<Integer> moves = new ArrayList<>();
+    int length = random.nextInt(rows * columns + 1);
+    while (!m.isGameOver() && moves.size() < length) {
+      int column = 1 + random.nextInt(columns);
+      if (m.getColumnHeight(column) < rows) {
+        m.makeMove(column);
+        moves.add(column);
+      }
+    }
+    int[] result = moves.stream().mapToInt(Integer::intValue).toArray();
+    return new GameRecord(rows, columns, result, m.isGameOver(), m.getWinner());
+  }
+
+  /**
+   * Deletes a directory and everything in it.
+   *
+   * @param dir the directory
+   */
+  private void delete(Path dir) throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+}
@@ -0,0 +1,163 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import connect.ConnectFourModelImpl;
+import connect.GameEventListener;
+import connect.GameSession;
+import connect.GameSessionPool;
+import connect.Player;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import org.junit.Test;
+
+/**
+ * This is the test for the GameSessionPool class.
+ */
+public class GameSessionPoolTest {
+
+  /**
+   * Test a released session is reused for the next game of the same size, with an empty board
+   * and bound to the new client's input and output.
+   */
+  @Test
+  public void testSessionIsReused() {
+    GameSessionPool pool = new GameSessionPool();
+    StringBuilder first = new StringBuilder();
+    GameSession session = pool.lease(6, 7, new StringReader("4\n4\n0\n"), first);
+    session.play();
+    assertTrue(first.toString().endsWith("Game quit! Ending game state:\n"
+        + session.getModel() + "\n"));
+    pool.release(session);
+
+    StringBuilder second = new StringBuilder();
+    GameSession again = pool.lease(6, 7, new StringReader("3\n0\n"), second);
+    assertSame(session, again);
+    assertEquals(0, again.getModel().getMoveHistory().length);
+    again.play();
+    ConnectFourModelImpl expected = new ConnectFourModelImpl();
+    expected.makeMove(3);
+    assertTrue(second.toString().startsWith(new ConnectFourModelImpl() + "\n"));
+    assertTrue(second.toString().endsWith("Game quit! Ending game state:\n" + expected + "\n"));
+    pool.release(again);
+
+    assertEquals(1, pool.getHits());
+    assertEquals(1, pool.getMisses());
+    assertEquals(0.5, pool.getHitRate(), 1e-9);
+    assertEquals(1, pool.getPeakSize());
+  }
+
+  /**
+   * Test a reused session reads its new client's input into the same tokenizer buffer instead of
+   * allocating a new one.
+   */
+  @Test
+  public void testTokenizerIsReused() {
+    GameSessionPool pool = new GameSessionPool();
+    RecordingInput first = new RecordingInput("4\n0\n");
+    GameSession session = pool.lease(6, 7, first, new StringBuilder());
+    session.play();
+    pool.release(session);
+    RecordingInput second = new RecordingInput("3\n0\n");
+    pool.lease(6, 7, second, new StringBuilder()).play();
+    assertTrue(first.buffer != null);
+    assertSame(first.buffer, second.buffer);
+  }
+
+  /**
+   * Test a listener set by one client is not told about the next client's game.
+   */
+  @Test
+  public void testListenerIsReset() {
+    GameSessionPool pool = new GameSessionPool();
+    int[] moves = new int[1];
+    GameSession session = pool.lease(6, 7, new StringReader("4\n0\n"), new StringBuilder());
+    session.getController().setListener(new GameEventListener() {
+      @Override
+      public void onMove(Player player, int column) {
+        moves[0]++;
+      }
+
+      @Override
+      public void onInvalidInput() {
+      }
+
+      @Override
+      public void onInvalidMove(int column) {
+      }
+
+      @Override
+      public void onQuit() {
+      }
+
+      @Override
+      public void onGameOver(Player winner) {
+      }
+    });
+    session.play();
+    assertEquals(1, moves[0]);
+    pool.release(session);
+    GameSession again = pool.lease(6, 7, new StringReader("3\n0\n"), new StringBuilder());
+    assertSame(session, again);
+    again.play();
+    assertEquals(1, moves[0]);
+  }
+
+  /**
+   * Test sessions are kept apart by size and the peak size counts leased sessions.
+   */
+  @Test
+  public void testSizesAndPeak() {
+    GameSessionPool pool = new GameSessionPool(ConnectFourModelImpl::new, 1);
+    GameSession small = pool.lease(6, 7, new StringReader(""), new StringBuilder());
+    GameSession large = pool.lease(8, 9, new StringReader(""), new StringBuilder());
+    GameSession other = pool.lease(6, 7, new StringReader(""), new StringBuilder());
+    assertEquals(3, pool.getPeakSize());
+    assertEquals(8, large.getModel().getRows());
+    pool.release(small);
+    pool.release(other);
+    pool.release(large);
+    assertEquals(2, pool.getSize());
+    assertEquals(2, pool.getIdleCount());
+    assertNotSame(large, pool.lease(6, 7, new StringReader(""), new StringBuilder()));
+    assertSame(large, pool.lease(8, 9, new StringReader(""), new StringBuilder()));
+    assertEquals(3, pool.getPeakSize());
+    assertEquals(0.4, pool.getHitRate(), 1e-9);
+  }
+
+  /**
+   * Test a session cannot be released twice.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testReleaseTwice() {
+    GameSessionPool pool = new GameSessionPool();
+    GameSession session = pool.lease(6, 7, new StringReader(""), new StringBuilder());
+    pool.release(session);
+    pool.release(session);
+  }
+
+  /**
+   * An input that remembers the buffer it was last read into.
+   */
+  private static final class RecordingInput implements Readable {
+    private final StringReader in;
+    private CharBuffer buffer;
+
+    /**
+     * Constructs a new RecordingInput object.
+     *
+     * @param text the input
+     */
+    private RecordingInput(String text) {
+      this.in = new StringReader(text);
+    }
+
+    @Override
+    public int read(CharBuffer cb) throws IOException {
+      buffer = cb;
+      return in.read(cb);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import connect.ConnectFourBitboardModel;
+import connect.ConnectFourModelImpl;
+import connect.GameSimulator;
+import connect.GreedyMoveSearcher;
+import connect.RandomMoveSearcher;
+import connect.SimulationReport;
+import org.junit.Test;
+
+/**
+ * This is the test for the GameSimulator class.
+ */
+public class GameSimulatorTest {
+
+  /**
+   * Test every game is counted exactly once across the worker threads.
+   */
+  @Test
+  public void testCountsAddUp() {
+    GameSimulator simulator = new GameSimulator(ConnectFourModelImpl::new,
+        RandomMoveSearcher::new, RandomMoveSearcher::new, 3);
+    SimulationReport report = simulator.run(500);
+    assertEquals(500, report.getGames());
+    assertEquals(500, report.getRedWins() + report.getYellowWins() + report.getDraws());
+    assertTrue(report.getAverageGameLength() >= 7 && report.getAverageGameLength() <= 42);
+    assertTrue(report.getMovesPerSecond() > 0);
+  }
+
+  /**
+   * Test the greedy player beats the random player most of the time. Both players are seeded and
+   * play on one thread, so the games are the same on every run.
+   */
+  @Test
+  public void testGreedyBeatsRandom() {
+    GameSimulator simulator = new GameSimulator(ConnectFourBitboardModel::new,
+        () -> new GreedyMoveSearcher(7), () -> new RandomMoveSearcher(11), 1);
+    SimulationReport report = simulator.run(200);
+    assertTrue(report.getRedWins() > report.getGames() * 3 / 4);
+  }
+
+  /**
+   * Test the simulator rejects a non-positive number of threads.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoThreads() {
+    new GameSimulator(ConnectFourModelImpl::new, RandomMoveSearcher::new,
+        RandomMoveSearcher::new, 0);
+  }
+}
@@ -0,0 +1,180 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import connect.InputTokenizer;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Scanner;
+import org.junit.Test;
+
+/**
+ * This is the test for the InputTokenizer class, which must read the input like the
+ * {@code Scanner} it replaces in the controller.
+ */
+public class InputTokenizerTest {
+  private static final String[] WORDS = {"4", "-3", "+7", "0", "x", "4x", "y", "yes", "-",
+      "2147483647", "2147483648", "-2147483648", "99999999999", "\u00e9", "007"};
+  private static final String[] SPACES = {" ", "  ", "\n", "\r\n", "\t", "\r", " \n "};
+
+  /**
+   * Test numbers, rejected words and skipped lines.
+   */
+  @Test
+  public void testNumbersAndLines() {
+    InputTokenizer tokenizer = new InputTokenizer(new StringReader(" 4\n-12 x 5\n+3"));
+    assertEquals(4, tokenizer.nextInt());
+    assertEquals(-12, tokenizer.nextInt());
+    try {
+      tokenizer.nextInt();
+      fail("x is not a number");
+    } catch (InputMismatchException e) {
+      // the word is left in place
+    }
+    assertTrue(tokenizer.nextWordEquals("x"));
+    tokenizer.skipLine();
+    assertEquals(3, tokenizer.nextInt());
+    try {
+      tokenizer.nextInt();
+      fail("the input has ended");
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+  }
+
+  /**
+   * Test words longer than the buffer are read whole.
+   */
+  @Test
+  public void testLongWord() {
+    StringBuilder word = new StringBuilder();
+    for (int i = 0; i < 20_000; i++) {
+      word.append('a');
+    }
+    InputTokenizer tokenizer = new InputTokenizer(new StringReader(word + " y 5"));
+    assertFalse(tokenizer.nextWordEquals("a"));
+    assertTrue(tokenizer.nextWordEquals("y"));
+    assertEquals(5, tokenizer.nextInt());
+  }
+
+  /**
+   * Test a reset tokenizer drops what it read ahead and reads the new input from the start.
+   */
+  @Test
+  public void testReset() {
+    InputTokenizer tokenizer = new InputTokenizer(new StringReader("4 x 5\n"));
+    assertEquals(4, tokenizer.nextInt());
+    assertFalse(tokenizer.hasNextInt());
+    tokenizer.reset(new StringReader("7\n"));
+    assertEquals(7, tokenizer.nextInt());
+    assertFalse(tokenizer.hasNext());
+    tokenizer.reset(new StringReader("y 2"));
+    assertTrue(tokenizer.nextWordEquals("y"));
+    assertEquals(2, tokenizer.nextInt());
+  }
+
+  /**
+   * Test random inputs, handed over a few characters at a time, are read exactly like
+   * {@code Scanner} reads them with the calls the controller makes.
+   */
+  @Test
+  public void testMatchesScanner() {
+    Random random = new Random(5004);
+    for (int round = 0; round < 500; round++) {
+      StringBuilder input = new StringBuilder();
+      int words = random.nextInt(30);
+      for (int i = 0; i < words; i++) {
+        input.append(SPACES[random.nextInt(SPACES.length)]);
+        input.append(WORDS[random.nextInt(WORDS.length)]);
+      }
+      if (random.nextBoolean()) {
+        input.append(SPACES[random.nextInt(SPACES.length)]);
+      }
+      String text = input.toString();
+      assertEquals(text, readWithScanner(text), readWithTokenizer(text, random));
+    }
+  }
+
+  /**
+   * Reads the input like the controller used to: a number at a time, a word after a 7, and the
+   * rest of the line after a word that is not a number.
+   *
+   * @param text the input
+   * @return what was read
+   */
+  private static String readWithScanner(String text) {
+    Scanner scanner = new Scanner(new StringReader(text));
+    StringBuilder read = new StringBuilder();
+    try {
+      while (true) {
+        try {
+          int n = scanner.nextInt();
+          read.append(n).append(' ');
+          if (n == 7) {
+            read.append("y".equals(scanner.next())).append(' ');
+          }
+        } catch (InputMismatchException e) {
+          read.append("! ");
+          scanner.nextLine();
+        }
+      }
+    } catch (NoSuchElementException e) {
+      read.append("end");
+    }
+    return read.toString();
+  }
+
+  /**
+   * Reads the input like the controller does now, handing it over in chunks of random size and
+   * checking for numbers either with {@code hasNextInt()} or by catching the exception.
+   *
+   * @param text   the input
+   * @param random the source of the chunk sizes
+   * @return what was read
+   */
+  private static String readWithTokenizer(String text, Random random) {
+    Readable chunked = new Readable() {
+      private int position;
+
+      @Override
+      public int read(CharBuffer cb) {
+        if (position == text.length()) {
+          return -1;
+        }
+        int n = Math.min(Math.min(1 + random.nextInt(5), cb.remaining()),
+            text.length() - position);
+        cb.put(text, position, position + n);
+        position += n;
+        return n;
+      }
+    };
+    InputTokenizer tokenizer = new InputTokenizer(chunked);
+    StringBuilder read = new StringBuilder();
+    try {
+      while (true) {
+        if (random.nextBoolean() && tokenizer.hasNext() && !tokenizer.hasNextInt()) {
+          read.append("! ");
+          tokenizer.skipLine();
+          continue;
+        }
+        try {
+          int n = tokenizer.nextInt();
+          read.append(n).append(' ');
+          if (n == 7) {
+            read.append(tokenizer.nextWordEquals("y")).append(' ');
+          }
+        } catch (InputMismatchException e) {
+          read.append("! ");
+          tokenizer.skipLine();
+        }
+      }
+    } catch (NoSuchElementException e) {
+      read.append("end");
+    }
+    return read.toString();
+  }
+}
@@ -0,0 +1,62 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import connect.ConnectFourModelImpl;
+import connect.LoadGenerator;
+import connect.LoadReport;
+import connect.VirtualThreads;
+import java.util.concurrent.Executors;
+import org.junit.Test;
+
+/**
+ * This is the test for the LoadGenerator class.
+ */
+public class LoadGeneratorTest {
+
+  /**
+   * Test every session plays its games and the report adds up.
+   */
+  @Test
+  public void testSessionsPlayTheirGames() {
+    LoadReport report = new LoadGenerator(ConnectFourModelImpl::new,
+        () -> Executors.newFixedThreadPool(2), 8, 5, 5004).run();
+    assertEquals(8, report.getSessions());
+    assertEquals(40, report.getGames());
+    assertTrue(report.getQuits() <= report.getGames());
+    assertTrue(report.getMoves() >= (report.getGames() - report.getQuits()) * 7);
+    assertTrue(report.getInvalidInputs() > 0);
+    assertTrue(report.getInvalidMoves() > 0);
+    assertTrue(report.getTurns() >= report.getMoves() + report.getInvalidInputs());
+    assertTrue(report.getMedianTurnNanos() > 0);
+    assertTrue(report.getMedianTurnNanos() <= report.getP99TurnNanos());
+    assertTrue(report.getP99TurnNanos() <= report.getMaxTurnNanos() * 1.04);
+    assertTrue(report.getOutputChars() > 0);
+    assertTrue(report.getTurnsPerSecond() > 0);
+    if (report.getAllocatedBytes() != -1) {
+      assertTrue(report.getAllocatedBytes() > 0);
+    }
+  }
+
+  /**
+   * Test the same seed plays the same games on platform and on virtual threads.
+   */
+  @Test
+  public void testExecutorsPlayTheSameGames() {
+    LoadReport platform = new LoadGenerator(ConnectFourModelImpl::new,
+        () -> Executors.newFixedThreadPool(3), 6, 4, 42).run();
+    LoadReport virtual = new LoadGenerator(ConnectFourModelImpl::new,
+        VirtualThreads::newPerTaskExecutor, 6, 4, 42).run();
+    assertEquals(platform.getTurns(), virtual.getTurns());
+    assertEquals(platform.getMoves(), virtual.getMoves());
+    assertEquals(platform.getQuits(), virtual.getQuits());
+    assertEquals(platform.getOutputChars(), virtual.getOutputChars());
+  }
+
+  /**
+   * Test the generator rejects a non-positive number of sessions.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoSessions() {
+    new LoadGenerator(ConnectFourModelImpl::new, Executors::newCachedThreadPool, 0, 1, 1);
+  }
+}
@@ -0,0 +1,131 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import connect.ConnectFourConsoleController;
+import connect.ConnectFourEventController;
+import connect.ConnectFourModel;
+import connect.ConnectFourModelImpl;
+import connect.ConnectFourView;
+import connect.InMemoryMetricsSink;
+import connect.InstrumentedModel;
+import connect.LogMetricsSink;
+import connect.MetricsSnapshot;
+import connect.ModelMetrics;
+import connect.ModelOperation;
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.Test;
+
+/**
+ * This is the test for the ModelMetrics class and the instrumented model.
+ */
+public class ModelMetricsTest {
+
+  /**
+   * Test a console game counts calls, moves, invalid moves, invalid inputs and quits.
+   */
+  @Test
+  public void testConsoleGame() {
+    InMemoryMetricsSink sink = new InMemoryMetricsSink();
+    ModelMetrics metrics = new ModelMetrics(sink);
+    ConnectFourModel m = new InstrumentedModel(new ConnectFourModelImpl(), metrics);
+    ConnectFourConsoleController controller = new ConnectFourConsoleController(
+        new StringReader("4 x\n9 4 5\n0\n"), new ConnectFourView(new StringBuilder()));
+    controller.setListener(metrics);
+    controller.playGame(m);
+
+    metrics.publish();
+    MetricsSnapshot snapshot = sink.getLatest();
+    assertEquals(4, snapshot.getCallCount(ModelOperation.MAKE_MOVE));
+    assertEquals(3, snapshot.getMoves());
+    assertEquals(1, snapshot.getInvalidMoves());
+    assertEquals(1, snapshot.getInvalidInputs());
+    assertEquals(1, snapshot.getQuits());
+    assertEquals(0, snapshot.getGamesOver());
+    assertEquals(0.25, snapshot.getInvalidMoveRate(), 1e-9);
+    assertEquals(1.0, snapshot.getQuitRate(), 1e-9);
+    assertTrue(snapshot.getCallCount(ModelOperation.IS_GAME_OVER) > 0);
+    assertTrue(snapshot.getCallCount(ModelOperation.RENDER_BOARD) > 0);
+    assertEquals(0, snapshot.getCallCount(ModelOperation.GET_BOARD_STATE));
+    for (ModelOperation operation : ModelOperation.values()) {
+      assertTrue(snapshot.getMedianNanos(operation) <= snapshot.getP99Nanos(operation));
+      assertTrue(snapshot.getP99Nanos(operation) <= snapshot.getMaxNanos(operation));
+    }
+  }
+
+  /**
+   * Test the event controller reports a finished game.
+   */
+  @Test
+  public void testEventControllerGameOver() throws IOException {
+    ModelMetrics metrics = new ModelMetrics(new InMemoryMetricsSink());
+    ConnectFourEventController controller = new ConnectFourEventController(
+        new ConnectFourView(new StringBuilder()));
+    controller.setListener(metrics);
+    controller.start(new InstrumentedModel(new ConnectFourModelImpl(), metrics));
+    controller.onInput("1 2 1 2 1 2 1 n\n");
+    MetricsSnapshot snapshot = metrics.snapshot();
+    assertEquals(7, snapshot.getMoves());
+    assertEquals(1, snapshot.getGamesOver());
+    assertEquals(0.0, snapshot.getQuitRate(), 1e-9);
+  }
+
+  /**
+   * Test the percentiles are accurate to within the histogram's precision.
+   */
+  @Test
+  public void testPercentiles() {
+    ModelMetrics metrics = new ModelMetrics(new InMemoryMetricsSink());
+    for (int i = 1; i <= 10_000; i++) {
+      metrics.record(ModelOperation.TO_STRING, i);
+    }
+    MetricsSnapshot snapshot = metrics.snapshot();
+    assertEquals(10_000, snapshot.getCallCount(ModelOperation.TO_STRING));
+    assertEquals(5_000, snapshot.getMedianNanos(ModelOperation.TO_STRING), 5_000 * 0.04);
+    assertEquals(9_900, snapshot.getP99Nanos(ModelOperation.TO_STRING), 9_900 * 0.04);
+    assertEquals(10_000, snapshot.getMaxNanos(ModelOperation.TO_STRING));
+    assertEquals(5_000.5, snapshot.getMeanNanos(ModelOperation.TO_STRING), 1e-9);
+  }
+
+  /**
+   * Test nothing is recorded while the metrics are disabled.
+   */
+  @Test
+  public void testDisabled() {
+    ModelMetrics metrics = new ModelMetrics(new InMemoryMetricsSink());
+    metrics.setEnabled(false);
+    ConnectFourModel m = new InstrumentedModel(new ConnectFourModelImpl(), metrics);
+    m.makeMove(4);
+    m.isGameOver();
+    metrics.onMove(null, 4);
+    MetricsSnapshot snapshot = metrics.snapshot();
+    assertEquals(0, snapshot.getCallCount(ModelOperation.MAKE_MOVE));
+    assertEquals(0, snapshot.getCallCount(ModelOperation.IS_GAME_OVER));
+    assertEquals(0, snapshot.getMoves());
+  }
+
+  /**
+   * Test periodic reporting writes lines to the log sink, and a last one on close.
+   */
+  @Test
+  public void testPeriodicLog() throws InterruptedException {
+    StringBuffer log = new StringBuffer();
+    ModelMetrics metrics = new ModelMetrics(new LogMetricsSink(log));
+    metrics.record(ModelOperation.MAKE_MOVE, 100);
+    metrics.startReporting(10);
+    Thread.sleep(100);
+    metrics.close();
+    String[] lines = log.toString().split("\n");
+    assertTrue(lines.length >= 2);
+    assertTrue(lines[lines.length - 1].contains("make_move calls=1"));
+  }
+
+  /**
+   * Test a sink that has received nothing has no latest snapshot.
+   */
+  @Test
+  public void testEmptySink() {
+    assertNull(new InMemoryMetricsSink().getLatest());
+  }
+}
@@ -0,0 +1,164 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import connect.BookMoveSearcher;
+import connect.ConnectFourBitboardModel;
+import connect.ConnectFourModel;
+import connect.ConnectFourModelImpl;
+import connect.MoveSearcher;
+import connect.OpeningBook;
+import connect.OpeningBookGenerator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Test;
+
+/**
+ * This is the test for the OpeningBook and OpeningBookGenerator classes.
+ */
+public class OpeningBookTest {
+
+  /**
+   * A searcher that always plays the leftmost column that is not full, and counts its calls.
+   */
+  private static class LeftmostSearcher implements MoveSearcher {
+    private int calls;
+
+    @Override
+    public int findMove(ConnectFourModel m) {
+      calls++;
+      int column = 1;
+      while (m.getColumnHeight(column) == m.getRows()) {
+        column++;
+      }
+      return column;
+    }
+  }
+
+  /**
+   * Test every position of the first plies is in the book, each searched once with its mirror
+   * image, and that mirror images get mirrored moves.
+   */
+  @Test
+  public void testLookup() throws IOException {
+    Path file = Files.createTempFile("opening", ".book");
+    try {
+      LeftmostSearcher searcher = new LeftmostSearcher();
+      int size = new OpeningBookGenerator(6, 7, 4, searcher).generate(file);
+      OpeningBook book = new OpeningBook(file);
+      assertEquals(size, book.getSize());
+      assertEquals(searcher.calls, size);
+      assertEquals(4, book.getPlies());
+      // 1 + 7 + 49 + 238 positions in the first four plies, about half of them mirror images
+      assertTrue(size < 1 + 7 + 49 + 238);
+      assertTrue(size > (1 + 7 + 49 + 238) / 2);
+
+      int[] moves = new int[4];
+      for (int i = 0; i < 7 * 7 * 7 * 7; i++) {
+        for (int j = 0, n = i; j < moves.length; j++, n /= 7) {
+          moves[j] = 1 + n % 7;
+        }
+        for (int plies = 0; plies <= moves.length; plies++) {
+          ConnectFourModel m = new ConnectFourModelImpl();
+          ConnectFourModel mirrored = new ConnectFourBitboardModel();
+          for (int j = 0; j < plies; j++) {
+            m.makeMove(moves[j]);
+            mirrored.makeMove(8 - moves[j]);
+          }
+          int move = book.lookup(m);
+          if (plies == 4) {
+            assertEquals(0, move);
+          } else {
+            assertTrue(move == 1 || move == 7);
+            boolean symmetric = m.toString().equals(mirrored.toString());
+            assertEquals(symmetric ? move : 8 - move, book.lookup(mirrored));
+          }
+        }
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Test a board of another size is never found in the book.
+   */
+  @Test
+  public void testOtherBoardSize() throws IOException {
+    Path file = Files.createTempFile("opening", ".book");
+    try {
+      new OpeningBookGenerator(6, 7, 2, new LeftmostSearcher()).generate(file);
+      OpeningBook book = new OpeningBook(file);
+      assertEquals(0, book.lookup(new ConnectFourModelImpl(7, 6)));
+      assertEquals(1, book.lookup(new ConnectFourModelImpl(6, 7)));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Test a 6x8 board, whose keys would set the sign bit of the book entries and break their
+   * order, gets no book, while the widest board that fits does and finds its positions.
+   */
+  @Test
+  public void testLargestBoards() throws IOException {
+    try {
+      new OpeningBookGenerator(6, 8, 2, new LeftmostSearcher());
+      fail("a 6x8 board does not fit the book keys");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    Path file = Files.createTempFile("opening", ".book");
+    try {
+      new OpeningBookGenerator(5, 9, 3, new LeftmostSearcher()).generate(file);
+      OpeningBook book = new OpeningBook(file);
+      ConnectFourModel m = new ConnectFourModelImpl(5, 9);
+      assertEquals(1, book.lookup(m));
+      m.makeMove(9);
+      assertTrue(book.lookup(m) != 0);
+      m.makeMove(9);
+      assertTrue(book.lookup(m) != 0);
+      m.makeMove(1);
+      assertEquals(0, book.lookup(m));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Test the book searcher plays from the book and asks the fallback searcher afterwards.
+   */
+  @Test
+  public void testBookMoveSearcher() throws IOException {
+    Path file = Files.createTempFile("opening", ".book");
+    try {
+      new OpeningBookGenerator(6, 7, 2, new LeftmostSearcher()).generate(file);
+      LeftmostSearcher fallback = new LeftmostSearcher();
+      MoveSearcher searcher = new BookMoveSearcher(new OpeningBook(file), fallback);
+      ConnectFourModel m = new ConnectFourModelImpl();
+      m.makeMove(7);
+      assertEquals(7, searcher.findMove(m));
+      assertEquals(0, fallback.calls);
+      m.makeMove(7);
+      assertEquals(1, searcher.findMove(m));
+      assertEquals(1, fallback.calls);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Test a file that is not an opening book is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNotABook() throws IOException {
+    Path file = Files.createTempFile("opening", ".book");
+    try {
+      Files.write(file, new byte[64]);
+      new OpeningBook(file);
+    } finally {
+      Files.delete(file);
+    }
+  }
+}